@@ -0,0 +1,358 @@
+package clases;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadInfo;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * Benchmark de escalabilidad de las tablas compartidas entre hilos: para
+ * cada implementación y para 1, 2, 4, ..., N hilos, todos los hilos
+ * consultan y modifican la misma tabla durante un tiempo fijo, con una
+ * mezcla de get(), put() y merge() (la operación de un contador de
+ * frecuencias) y claves elegidas con distribución uniforme o de Zipf.
+ *
+ * Las implementaciones son Collections.synchronizedMap() sobre
+ * TSB_OAHashtable y sobre TSBHashtable (un único cerrojo para toda la
+ * tabla) y java.util.concurrent.ConcurrentHashMap como referencia; una
+ * versión concurrente de las tablas TSB se agrega en newMap().
+ *
+ * Por cada punto informa, en formato CSV (una fila por implementación y
+ * cantidad de hilos): operaciones por segundo, la aceleración respecto de
+ * un hilo, los percentiles 50, 99 y 99.9 y el máximo de la latencia de cada
+ * operación (registrada en un TSBLatencyHistogram por hilo; incluye el costo
+ * de System.nanoTime(), unos 20 ns), y las señales de contención que expone
+ * ThreadMXBean: cuántas veces y cuánto tiempo estuvieron los hilos
+ * bloqueados esperando un monitor, cuántas veces esperaron (wait/park), y
+ * la fracción del tiempo en que los hilos usaron la CPU.
+ *
+ * Uso: java -cp target/benchmarks.jar clases.TSBConcurrencyBenchmark [opción=valor]...
+ * con las opciones (y sus valores por defecto): threads=cantidad de
+ * procesadores, read=90, write=5, merge=5 (proporciones de cada operación),
+ * skew=1.0 (exponente de Zipf; 0 para claves uniformes), keys=100000,
+ * warmup=1 y seconds=2 (segundos por punto), impls=lista separada por comas,
+ * seed=42 y out=archivo CSV (por defecto, la salida estándar).
+ *
+ * @version Octubre de 2026.
+ */
+public class TSBConcurrencyBenchmark
+{
+    // tamaño de las secuencias de operaciones y claves de cada hilo...
+    private static final int LOOKUPS = 1 << 16;
+    private static final int MASK = LOOKUPS - 1;
+
+    // fases de cada punto...
+    private static final int WARMUP = 0;
+    private static final int MEASURE = 1;
+    private static final int STOP = 2;
+
+    // operaciones...
+    private static final byte READ = 0;
+    private static final byte WRITE = 1;
+    private static final byte MERGE = 2;
+
+    private static final String IMPLS = "synchronized-TSB_OAHashtable,synchronized-TSBHashtable,ConcurrentHashMap";
+
+    private static final Integer ONE = 1;
+    private static final BiFunction<Integer, Integer, Integer> SUM = Integer::sum;
+
+    private final int read;
+    private final int write;
+    private final int merge;
+    private final double skew;
+    private final long seed;
+    private final long warmup_millis;
+    private final long measure_millis;
+    private final Object keys[];
+    private final ThreadMXBean threads;
+
+    private volatile int phase;
+
+    public TSBConcurrencyBenchmark(int keys, int read, int write, int merge, double skew,
+                                   double warmup, double seconds, long seed)
+    {
+        if(keys < 1 || read < 0 || write < 0 || merge < 0 || read + write + merge == 0 || skew < 0)
+        {
+            throw new IllegalArgumentException("TSBConcurrencyBenchmark(): parámetros inválidos...");
+        }
+        this.read = read;
+        this.write = write;
+        this.merge = merge;
+        this.skew = skew;
+        this.seed = seed;
+        this.warmup_millis = (long) (warmup * 1000);
+        this.measure_millis = (long) (seconds * 1000);
+        this.keys = TSBMapState.keys("String", keys, 0);
+
+        this.threads = ManagementFactory.getThreadMXBean();
+        if(threads.isThreadContentionMonitoringSupported()) threads.setThreadContentionMonitoringEnabled(true);
+        if(threads.isThreadCpuTimeSupported()) threads.setThreadCpuTimeEnabled(true);
+    }
+
+    /**
+     * Crea la tabla compartida de la implementación indicada.
+     * @param impl el nombre de la implementación.
+     * @return la tabla, vacía.
+     * @throws IllegalArgumentException si la implementación no existe.
+     */
+    static Map<Object, Integer> newMap(String impl)
+    {
+        switch(impl)
+        {
+            case "synchronized-TSB_OAHashtable": return Collections.synchronizedMap(new TSB_OAHashtable<>());
+            case "synchronized-TSBHashtable": return Collections.synchronizedMap(new TSBHashtable<>());
+            case "ConcurrentHashMap": return new ConcurrentHashMap<>();
+            default: throw new IllegalArgumentException("newMap(): implementación desconocida: " + impl);
+        }
+    }
+
+    /**
+     * Mide una implementación con la cantidad de hilos indicada.
+     * @param impl el nombre de la implementación.
+     * @param n la cantidad de hilos.
+     * @return el resultado de la medición.
+     * @throws InterruptedException si el hilo que mide es interrumpido.
+     */
+    public Result run(String impl, int n) throws InterruptedException
+    {
+        Map<Object, Integer> map = newMap(impl);
+        TSBMapState.fill(map, keys);
+
+        Worker workers[] = new Worker[n];
+        long ids[] = new long[n];
+        for(int t = 0; t < n; t++)
+        {
+            workers[t] = new Worker(map, t);
+        }
+
+        phase = WARMUP;
+        for(int t = 0; t < n; t++)
+        {
+            workers[t].start();
+            ids[t] = workers[t].getId();
+        }
+        Thread.sleep(warmup_millis);
+
+        long before[] = this.contention(ids);
+        long t0 = System.nanoTime();
+        phase = MEASURE;
+        Thread.sleep(measure_millis);
+        phase = STOP;
+        long elapsed = System.nanoTime() - t0;
+        long after[] = this.contention(ids);
+        for(Worker w : workers) w.join();
+
+        Result r = new Result(impl, n, elapsed);
+        for(Worker w : workers) r.latency.add(w.latency);
+        r.blocked_count = after[0] - before[0];
+        r.blocked_millis = (after[1] < 0 || before[1] < 0) ? -1 : after[1] - before[1];
+        r.waited_count = after[2] - before[2];
+        r.cpu_nanos = (after[3] < 0 || before[3] < 0) ? -1 : after[3] - before[3];
+        return r;
+    }
+
+    //************************ Métodos privados.
+
+    /*
+     * Suma, para los hilos indicados, las veces y el tiempo (en ms) que
+     * estuvieron bloqueados, las veces que esperaron y el tiempo de CPU (en
+     * ns). Los tiempos son -1 si la JVM no los mide.
+     */
+    private long[] contention(long ids[])
+    {
+        long c[] = new long[4];
+        boolean cpu = threads.isThreadCpuTimeSupported();
+        boolean time = threads.isThreadContentionMonitoringEnabled();
+        for(ThreadInfo info : threads.getThreadInfo(ids))
+        {
+            if(info == null) continue;
+            c[0] += info.getBlockedCount();
+            c[1] += info.getBlockedTime();
+            c[2] += info.getWaitedCount();
+        }
+        for(long id : ids)
+        {
+            c[3] += cpu ? threads.getThreadCpuTime(id) : 0;
+        }
+        if(!time) c[1] = -1;
+        if(!cpu) c[3] = -1;
+        return c;
+    }
+
+    /*
+     * Hilo de carga: ejecuta su secuencia de operaciones hasta que termina
+     * la medición, registrando la latencia de cada una durante la medición.
+     */
+    private class Worker extends Thread
+    {
+        private final Map<Object, Integer> map;
+        private final byte ops[] = new byte[LOOKUPS];
+        private final int order[] = new int[LOOKUPS];
+        private final TSBLatencyHistogram latency = new TSBLatencyHistogram();
+
+        // el resultado de las consultas, para que el JIT no las elimine...
+        private volatile long sink;
+
+        Worker(Map<Object, Integer> map, int t)
+        {
+            super("tsb-carga-" + t);
+            setDaemon(true);
+            this.map = map;
+
+            Random r = new Random(seed + t);
+            int total = read + write + merge;
+            TSBZipf zipf = (skew > 0) ? new TSBZipf(keys.length, skew) : null;
+            for(int i = 0; i < LOOKUPS; i++)
+            {
+                int x = r.nextInt(total);
+                ops[i] = (x < read) ? READ : (x < read + write) ? WRITE : MERGE;
+                order[i] = (zipf != null) ? zipf.next(r) - 1 : r.nextInt(keys.length);
+            }
+        }
+
+        @Override
+        public void run()
+        {
+            long sink = 0;
+            int p;
+            for(int i = 0; (p = phase) != STOP; i++)
+            {
+                Object key = keys[order[i & MASK]];
+                long t0 = System.nanoTime();
+                switch(ops[i & MASK])
+                {
+                    case READ:
+                        Integer v = map.get(key);
+                        if(v != null) sink += v;
+                        break;
+                    case WRITE:
+                        map.put(key, ONE);
+                        break;
+                    default:
+                        map.merge(key, ONE, SUM);
+                        break;
+                }
+                if(p == MEASURE) latency.record(System.nanoTime() - t0);
+            }
+            this.sink = sink;
+        }
+    }
+
+    /**
+     * Resultado de la medición de una implementación con una cantidad de
+     * hilos.
+     */
+    public static class Result
+    {
+        final String impl;
+        final int threads;
+        final long nanos;
+        final TSBLatencyHistogram latency = new TSBLatencyHistogram();
+        long blocked_count;
+        long blocked_millis;
+        long waited_count;
+        long cpu_nanos;
+
+        Result(String impl, int threads, long nanos)
+        {
+            this.impl = impl;
+            this.threads = threads;
+            this.nanos = nanos;
+        }
+
+        public double getThroughput()
+        {
+            return latency.getCount() / (nanos / 1e9);
+        }
+
+        /**
+         * Retorna la fracción del tiempo de medición en que los hilos usaron
+         * la CPU (1 si todos la usaron todo el tiempo).
+         * @return la utilización de la CPU, o -1 si la JVM no la mide.
+         */
+        public double getCpuUtilization()
+        {
+            return (cpu_nanos < 0) ? -1 : (double) cpu_nanos / ((double) nanos * threads);
+        }
+    }
+
+    static final String HEADER = "impl,threads,read,write,merge,skew,keys,ops,seconds,ops_per_sec,speedup,"
+                               + "mean_ns,p50_ns,p99_ns,p999_ns,max_ns,blocked_count,blocked_ms,waited_count,cpu_util";
+
+    String csv(Result r, double base)
+    {
+        TSBLatencyHistogram h = r.latency;
+        return String.format(Locale.ROOT, "%s,%d,%d,%d,%d,%.2f,%d,%d,%.3f,%.0f,%.3f,%.1f,%d,%d,%d,%d,%d,%d,%d,%.3f",
+                             r.impl, r.threads, read, write, merge, skew, keys.length, h.getCount(),
+                             r.nanos / 1e9, r.getThroughput(), r.getThroughput() / base, h.getMean(),
+                             h.getPercentile(0.50), h.getPercentile(0.99), h.getPercentile(0.999), h.getMax(),
+                             r.blocked_count, r.blocked_millis, r.waited_count, r.getCpuUtilization());
+    }
+
+    /**
+     * Ejecuta el barrido con las opciones indicadas (ver la descripción de
+     * la clase) y escribe los resultados en formato CSV.
+     * @param args las opciones, de la forma opción=valor.
+     * @throws Exception si el archivo de salida no puede escribirse o el
+     *         hilo principal es interrumpido.
+     */
+    public static void main(String args[]) throws Exception
+    {
+        Map<String, String> opt = new HashMap<>();
+        for(String a : args)
+        {
+            int eq = a.indexOf('=');
+            if(eq < 1)
+            {
+                System.err.println("Uso: java clases.TSBConcurrencyBenchmark [opción=valor]...");
+                System.exit(1);
+            }
+            opt.put(a.substring(0, eq), a.substring(eq + 1));
+        }
+
+        int max = Integer.parseInt(opt.getOrDefault("threads", String.valueOf(Runtime.getRuntime().availableProcessors())));
+        TSBConcurrencyBenchmark b = new TSBConcurrencyBenchmark(
+                Integer.parseInt(opt.getOrDefault("keys", "100000")),
+                Integer.parseInt(opt.getOrDefault("read", "90")),
+                Integer.parseInt(opt.getOrDefault("write", "5")),
+                Integer.parseInt(opt.getOrDefault("merge", "5")),
+                Double.parseDouble(opt.getOrDefault("skew", "1.0")),
+                Double.parseDouble(opt.getOrDefault("warmup", "1")),
+                Double.parseDouble(opt.getOrDefault("seconds", "2")),
+                Long.parseLong(opt.getOrDefault("seed", "42")));
+
+        String out = opt.get("out");
+        try(PrintStream ps = (out == null) ? null : new PrintStream(Files.newOutputStream(Paths.get(out)), true, "UTF-8"))
+        {
+            PrintStream csv = (ps == null) ? System.out : ps;
+            csv.println(HEADER);
+            for(String impl : opt.getOrDefault("impls", IMPLS).split(","))
+            {
+                double base = 0;
+                for(int n = 1; ; n = Math.min(2 * n, max))
+                {
+                    Result r = b.run(impl, n);
+                    if(n == 1) base = r.getThroughput();
+                    csv.println(b.csv(r, base));
+                    csv.flush();
+                    if(n == max) break;
+                }
+            }
+        }
+        catch(IOException e)
+        {
+            System.err.println("No se pudo escribir " + out + ": " + e.getMessage());
+            System.exit(1);
+        }
+    }
+}
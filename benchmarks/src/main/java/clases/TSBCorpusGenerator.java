@@ -0,0 +1,210 @@
+package clases;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Generador de un corpus de texto sintético para medir la carga de
+ * documentos: las palabras se eligen de un vocabulario fijo con distribución
+ * de Zipf (como en un texto real: pocas palabras muy frecuentes y muchas
+ * raras), con mayúsculas al comienzo de cada oración, signos de puntuación,
+ * comillas y paréntesis, y "ruido" numérico (números y palabras
+ * alfanuméricas, que el separador de palabras debe descartar).
+ *
+ * El resultado depende sólo de la semilla, la cantidad de palabras del
+ * vocabulario y el tamaño pedido: con los mismos parámetros se genera
+ * siempre el mismo archivo, byte por byte, así que los resultados de
+ * distintas corridas son comparables. La memoria usada depende sólo del
+ * vocabulario, no del tamaño del archivo (que puede ser de varios GB).
+ *
+ * Uso: java -cp target/benchmarks.jar clases.TSBCorpusGenerator archivo megabytes [vocabulario] [semilla]
+ *
+ * @version Octubre de 2026.
+ */
+public class TSBCorpusGenerator
+{
+    public static final int DEFAULT_VOCABULARY = 200_000;
+    public static final long DEFAULT_SEED = 20261018L;
+
+    // exponente de la distribución de Zipf del vocabulario...
+    private static final double ZIPF_S = 1.0;
+
+    // letras de las palabras (las acentuadas, con menor probabilidad)...
+    private static final String LETTERS = "eaosrnidlctumpbgvyqhfzjñxkwáéíóú";
+    private static final int LINE_WIDTH = 76;
+
+    private final Random random;
+    private final String vocabulary[];
+    private final TSBZipf zipf;
+
+    /**
+     * Crea un generador con un vocabulario de words palabras distintas.
+     * @param words la cantidad de palabras del vocabulario.
+     * @param seed la semilla del generador.
+     * @throws IllegalArgumentException si words < 1.
+     */
+    public TSBCorpusGenerator(int words, long seed)
+    {
+        if(words < 1) throw new IllegalArgumentException("TSBCorpusGenerator(): vocabulario vacío...");
+        this.random = new Random(seed);
+        this.vocabulary = vocabulary(words, random);
+        this.zipf = new TSBZipf(words, ZIPF_S);
+    }
+
+    /**
+     * Retorna el vocabulario, ordenado por rango (la primera palabra es la más
+     * frecuente).
+     * @return el vocabulario del generador.
+     */
+    public String[] getVocabulary()
+    {
+        return vocabulary.clone();
+    }
+
+    /**
+     * Escribe en out texto hasta completar (al menos) bytes bytes en UTF-8.
+     * @param out el destino del texto.
+     * @param bytes la cantidad de bytes a generar.
+     * @return la cantidad de bytes generados.
+     * @throws IOException si out no puede escribirse.
+     */
+    public long generate(Writer out, long bytes) throws IOException
+    {
+        StringBuilder line = new StringBuilder(2 * LINE_WIDTH);
+        long total = 0;
+        boolean sentence = true;
+        while(total < bytes)
+        {
+            String token = this.token();
+            if(sentence && Character.isLetter(token.charAt(0)))
+            {
+                token = Character.toUpperCase(token.charAt(0)) + token.substring(1);
+            }
+            sentence = false;
+
+            int r = random.nextInt(1000);
+            if(r < 8) token = "\"" + token + "\"";
+            else if(r < 12) token = "(" + token + ")";
+
+            r = random.nextInt(1000);
+            if(r < 60)
+            {
+                token += ".";
+                sentence = true;
+            }
+            else if(r < 130) token += ",";
+            else if(r < 140) token += ";";
+            else if(r < 146) token += ":";
+            else if(r < 152)
+            {
+                token += (random.nextBoolean() ? "?" : "!");
+                sentence = true;
+            }
+
+            if(line.length() > 0 && line.length() + 1 + token.length() > LINE_WIDTH)
+            {
+                line.append('\n');
+                total += this.write(out, line);
+            }
+            if(line.length() > 0) line.append(' ');
+            line.append(token);
+        }
+        line.append('\n');
+        total += this.write(out, line);
+        return total;
+    }
+
+    /*
+     * Retorna una palabra del vocabulario o, con baja probabilidad, un número
+     * o una palabra alfanumérica.
+     */
+    private String token()
+    {
+        int r = random.nextInt(100);
+        if(r < 2) return Integer.toString(random.nextInt(r == 0 ? 100 : 1_000_000));
+        if(r < 3)
+        {
+            String w = vocabulary[zipf.next(random) - 1];
+            return w.substring(0, Math.min(3, w.length())) + random.nextInt(100);
+        }
+        return vocabulary[zipf.next(random) - 1];
+    }
+
+    private long write(Writer out, StringBuilder line) throws IOException
+    {
+        long n = 0;
+        for(int i = 0; i < line.length(); i++)
+        {
+            char c = line.charAt(i);
+            n += (c < 0x80) ? 1 : 2;
+        }
+        out.append(line);
+        line.setLength(0);
+        return n;
+    }
+
+    /*
+     * Genera words palabras distintas, de 1 a 14 letras (las palabras de
+     * menor rango, es decir las más frecuentes, tienden a ser más cortas).
+     */
+    private static String[] vocabulary(int words, Random random)
+    {
+        String v[] = new String[words];
+        Set<String> seen = new HashSet<>(2 * words);
+        StringBuilder sb = new StringBuilder();
+        int i = 0;
+        while(i < words)
+        {
+            int max = 2 + (int) Math.min(12, Math.log(i + 2) * 1.2);
+            int len = 1 + random.nextInt(max);
+            sb.setLength(0);
+            for(int j = 0; j < len; j++)
+            {
+                // las letras del principio de LETTERS son más frecuentes...
+                int k = (int) (LETTERS.length() * Math.pow(random.nextDouble(), 1.8));
+                sb.append(LETTERS.charAt(k));
+            }
+            String w = sb.toString();
+            if(seen.add(w)) v[i++] = w;
+        }
+        return v;
+    }
+
+    /**
+     * Genera un corpus en el archivo indicado.
+     * @param args el archivo, el tamaño en MB, y opcionalmente la cantidad de
+     *        palabras del vocabulario y la semilla.
+     * @throws IOException si el archivo no puede escribirse.
+     */
+    public static void main(String args[]) throws IOException
+    {
+        if(args.length < 2)
+        {
+            System.err.println("Uso: java clases.TSBCorpusGenerator archivo megabytes [vocabulario] [semilla]");
+            System.exit(1);
+        }
+        Path file = Paths.get(args[0]);
+        long bytes = Long.parseLong(args[1]) << 20;
+        int words = (args.length > 2) ? Integer.parseInt(args[2]) : DEFAULT_VOCABULARY;
+        long seed = (args.length > 3) ? Long.parseLong(args[3]) : DEFAULT_SEED;
+
+        long t0 = System.nanoTime();
+        TSBCorpusGenerator g = new TSBCorpusGenerator(words, seed);
+        long total;
+        try(Writer out = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(file), StandardCharsets.UTF_8), 1 << 16))
+        {
+            total = g.generate(out, bytes);
+        }
+        System.out.printf("%s: %d bytes, vocabulario de %d palabras, semilla %d (%.3f s)%n",
+                          file, total, words, seed, (System.nanoTime() - t0) / 1e9);
+    }
+}
@@ -0,0 +1,135 @@
+package clases;
+
+import java.lang.instrument.Instrumentation;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Verificación de memoryFootprint(): construye tablas de distintos tamaños y
+ * compara la estimación de TSB_OAHashtable y TSBHashtable (con el modelo de
+ * memoria de la JVM en ejecución) contra la medición de un agente de
+ * java.lang.instrument, que recorre todos los objetos alcanzables desde la
+ * tabla y suma Instrumentation.getObjectSize() de cada uno. Se informa la
+ * medición de la estructura sola (sin seguir las claves y valores de los
+ * Entry) y con las claves y valores.
+ *
+ * El jar de benchmarks incluye la entrada Premain-Class para esta clase. Para
+ * recorrer los String hay que abrir java.lang al agente (Java 9 o posterior):
+ *
+ *     java -javaagent:target/benchmarks.jar --add-opens java.base/java.lang=ALL-UNNAMED \
+ *          -cp target/benchmarks.jar clases.TSBFootprintCheck [tamaño...]
+ *
+ * @version Octubre de 2026.
+ */
+public class TSBFootprintCheck
+{
+    private static volatile Instrumentation instrumentation;
+
+    public static void premain(String args, Instrumentation inst)
+    {
+        instrumentation = inst;
+    }
+
+    public static void agentmain(String args, Instrumentation inst)
+    {
+        instrumentation = inst;
+    }
+
+    /**
+     * Mide la memoria ocupada por todos los objetos alcanzables desde root.
+     * Los Integer del caché de Integer.valueOf() no se cuentan (igual que en
+     * TSBMemoryModel), y si contents es false no se siguen las claves y los
+     * valores de los Entry de las tablas.
+     * @param root el objeto raíz.
+     * @param contents true para seguir las claves y los valores.
+     * @return la cantidad de bytes medida por el agente.
+     */
+    public static long measure(Object root, boolean contents) throws IllegalAccessException
+    {
+        if(instrumentation == null) throw new IllegalStateException("measure(): falta -javaagent...");
+        Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        ArrayDeque<Object> pending = new ArrayDeque<>();
+        pending.push(root);
+        long total = 0;
+        while(!pending.isEmpty())
+        {
+            Object o = pending.pop();
+            if(o instanceof Class || !seen.add(o)) continue;
+            if(o instanceof Integer && Integer.valueOf((Integer) o) == o) continue;
+            total += instrumentation.getObjectSize(o);
+
+            Class<?> c = o.getClass();
+            if(c.isArray())
+            {
+                if(!c.getComponentType().isPrimitive())
+                {
+                    for(int i = 0, n = Array.getLength(o); i < n; i++)
+                    {
+                        Object x = Array.get(o, i);
+                        if(x != null) pending.push(x);
+                    }
+                }
+                continue;
+            }
+
+            boolean entry = !contents && Map.Entry.class.isAssignableFrom(c);
+            for(Class<?> k = c; k != null; k = k.getSuperclass())
+            {
+                for(Field f : k.getDeclaredFields())
+                {
+                    if(Modifier.isStatic(f.getModifiers()) || f.getType().isPrimitive()) continue;
+                    if(entry && (f.getName().equals("key") || f.getName().equals("value"))) continue;
+                    f.setAccessible(true);
+                    Object x = f.get(o);
+                    if(x != null) pending.push(x);
+                }
+            }
+        }
+        return total;
+    }
+
+    public static void main(String args[]) throws Exception
+    {
+        int sizes[] = { 1_000, 10_000, 100_000, 1_000_000 };
+        if(args.length > 0)
+        {
+            sizes = new int[args.length];
+            for(int i = 0; i < args.length; i++) sizes[i] = Integer.parseInt(args[i]);
+        }
+
+        TSBMemoryModel model = TSBMemoryModel.detect();
+        System.out.println("Modelo: " + model);
+        System.out.printf("%-16s %9s %14s %14s %7s %14s %14s %7s%n", "tabla", "pares",
+                          "estructura", "agente", "error", "con claves", "agente", "error");
+        for(int n : sizes)
+        {
+            Object keys[] = TSBMapState.keys("String", n, 0);
+            TSB_OAHashtable<String, Integer> oa = new TSB_OAHashtable<>();
+            TSBHashtable<String, Integer> ch = new TSBHashtable<>();
+            for(int i = 0; i < n; i++)
+            {
+                // frecuencias como las de un texto: muchas chicas (compartidas)...
+                Integer f = (i % 10 == 0) ? i : i % 100;
+                oa.put((String) keys[i], f);
+                ch.put((String) keys[i], f);
+            }
+            report("TSB_OAHashtable", n, oa.memoryFootprint(model, false), measure(oa, false),
+                   oa.memoryFootprint(model, true), measure(oa, true));
+            report("TSBHashtable", n, ch.memoryFootprint(model, false), measure(ch, false),
+                   ch.memoryFootprint(model, true), measure(ch, true));
+        }
+    }
+
+    private static void report(String name, int n, long estimate, long measured, long estimate_all, long measured_all)
+    {
+        System.out.printf("%-16s %9d %14d %14d %6.2f%% %14d %14d %6.2f%%%n", name, n,
+                          estimate, measured, 100.0 * (estimate - measured) / measured,
+                          estimate_all, measured_all, 100.0 * (estimate_all - measured_all) / measured_all);
+    }
+}
@@ -0,0 +1,115 @@
+package clases;
+
+/**
+ * Histograma de latencias con precisión relativa fija, al estilo de
+ * HdrHistogram: los valores menores a 2^SUB_BITS se cuentan exactos, y cada
+ * potencia de 2 por encima se divide en 2^SUB_BITS intervalos iguales, así
+ * que el error de cualquier percentil es menor a 1 / 2^SUB_BITS (0.8%) del
+ * valor, con un arreglo de tamaño fijo (unos 7500 contadores para todo el
+ * rango de los long).
+ *
+ * Registrar un valor es un cálculo de índice y un incremento, sin crear
+ * objetos; no es seguro para varios hilos: cada hilo registra en su propio
+ * histograma, y al final se suman con add().
+ *
+ * @version Octubre de 2026.
+ */
+public class TSBLatencyHistogram
+{
+    private static final int SUB_BITS = 7;
+    private static final int SUB = 1 << SUB_BITS;
+
+    private final long counts[] = new long[(65 - SUB_BITS) * SUB];
+    private long count;
+    private long max;
+    private double sum;
+
+    /**
+     * Registra un valor (una latencia, en nanosegundos).
+     * @param value el valor a registrar; los negativos se cuentan como 0.
+     */
+    public void record(long value)
+    {
+        if(value < 0) value = 0;
+        counts[index(value)]++;
+        count++;
+        sum += value;
+        if(value > max) max = value;
+    }
+
+    /**
+     * Suma al histograma los valores registrados en other.
+     * @param other el histograma a sumar.
+     */
+    public void add(TSBLatencyHistogram other)
+    {
+        for(int i = 0; i < counts.length; i++) counts[i] += other.counts[i];
+        count += other.count;
+        sum += other.sum;
+        max = Math.max(max, other.max);
+    }
+
+    public void reset()
+    {
+        java.util.Arrays.fill(counts, 0);
+        count = 0;
+        sum = 0;
+        max = 0;
+    }
+
+    public long getCount()
+    {
+        return count;
+    }
+
+    public long getMax()
+    {
+        return max;
+    }
+
+    public double getMean()
+    {
+        return (count == 0) ? 0 : sum / count;
+    }
+
+    /**
+     * Retorna el valor del percentil q: el mayor valor equivalente (dentro
+     * de la precisión del histograma) al valor registrado de posición
+     * ceil(q * count) en orden creciente.
+     * @param q el percentil, entre 0 y 1 (0.99 para p99).
+     * @return el valor del percentil, o 0 si el histograma está vacío.
+     * @throws IllegalArgumentException si q no está entre 0 y 1.
+     */
+    public long getPercentile(double q)
+    {
+        if(!(q >= 0 && q <= 1)) throw new IllegalArgumentException("getPercentile(): percentil inválido: " + q);
+        if(count == 0) return 0;
+
+        long target = Math.max(1, (long) Math.ceil(q * count));
+        long seen = 0;
+        for(int i = 0; i < counts.length; i++)
+        {
+            seen += counts[i];
+            if(seen >= target) return Math.min(highest(i), max);
+        }
+        return max;
+    }
+
+    //************************ Métodos privados.
+
+    private static int index(long value)
+    {
+        if(value < SUB) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS;
+        return (shift + 1) * SUB + (int) ((value >>> shift) - SUB);
+    }
+
+    // el mayor valor que cae en la casilla i...
+    private static long highest(int i)
+    {
+        if(i < SUB) return i;
+        int shift = i / SUB - 1;
+        long top = SUB + i % SUB;
+        return ((top + 1) << shift) - 1;
+    }
+}
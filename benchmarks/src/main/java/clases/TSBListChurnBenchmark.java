@@ -0,0 +1,94 @@
+package clases;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Un main() simple para medir el costo de una secuencia que alterna add() y 
+ * remove() en torno al límite de capacidad de una lista (el caso típico de los
+ * buckets de TSBHashtable, cuyos tamaños oscilan al insertar y eliminar pares).
+ * Se informa el tiempo promedio por operación y la cantidad de cambios de 
+ * capacidad observados en la TSBArrayList, comparando contra 
+ * java.util.ArrayList.
+ * 
+ * Uso: java -cp target/benchmarks.jar clases.TSBListChurnBenchmark [operaciones] [tamaño inicial]
+ * @version Octubre de 2026.
+ */
+public class TSBListChurnBenchmark 
+{
+    public static void main(String args[])
+    {
+        int ops = (args.length > 0)? Integer.parseInt(args[0]) : 20_000_000;
+        int size = (args.length > 1)? Integer.parseInt(args[1]) : 1280;
+        
+        // algunas rondas de calentamiento para que actúe el compilador JIT...
+        for(int i = 0; i < 3; i++)
+        {
+            churnTSB(ops / 10, size);
+            churn(new ArrayList<>(), ops / 10, size);
+        }
+        
+        long t0 = System.nanoTime();
+        int resizes = churnTSB(ops, size);
+        long t1 = System.nanoTime();
+        churn(new ArrayList<>(), ops, size);
+        long t2 = System.nanoTime();
+        
+        System.out.printf("TSBArrayList: %.2f ns/op, %d cambios de capacidad%n", 
+                          (double)(t1 - t0) / ops, resizes);
+        System.out.printf("ArrayList:    %.2f ns/op%n", (double)(t2 - t1) / ops);
+    }
+    
+    /*
+     * Lleva la lista a size+1 elementos (con size = 10 * 2^k el arreglo acaba 
+     * de duplicarse) y luego oscila entre size-2 y size+1 elementos: con la 
+     * política anterior (achicar por debajo de 1/2) cada ciclo de seis 
+     * operaciones achicaba y volvía a duplicar el arreglo, copiándolo dos 
+     * veces.
+     */
+    private static int churnTSB(int ops, int size)
+    {
+        TSBArrayList<Integer> list = new TSBArrayList<>(10);
+        fill(list, size);
+        
+        int resizes = 0;
+        int cap = list.capacity();
+        Integer x = 1;
+        for(int i = 0; i < ops; i += 6)
+        {
+            for(int j = 0; j < 6; j++)
+            {
+                if(j < 3) list.remove(list.size() - 1);
+                else list.add(x);
+                
+                if(list.capacity() != cap) 
+                { 
+                    resizes++; 
+                    cap = list.capacity(); 
+                }
+            }
+        }
+        return resizes;
+    }
+    
+    private static void churn(List<Integer> list, int ops, int size)
+    {
+        fill(list, size);
+        Integer x = 1;
+        for(int i = 0; i < ops; i += 6)
+        {
+            cycle(list, x);
+        }
+    }
+    
+    private static void cycle(List<Integer> list, Integer x)
+    {
+        for(int j = 0; j < 3; j++) list.remove(list.size() - 1);
+        for(int j = 0; j < 3; j++) list.add(x);
+    }
+    
+    private static void fill(List<Integer> list, int size)
+    {
+        for(int i = 0; i <= size; i++) list.add(i);
+    }
+}
@@ -0,0 +1,81 @@
+package clases;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks JMH de las operaciones sobre una tabla ya cargada (ver
+ * TSBMapState): búsquedas exitosas y fallidas, reemplazo del valor de una
+ * clave presente, eliminación, recorrido y clonación. Cada benchmark se
+ * ejecuta para TSB_OAHashtable, TSBHashtable y java.util.HashMap (la línea de
+ * base), para cada tamaño, distribución de consultas y tipo de clave.
+ *
+ * Ejemplo: java -jar target/benchmarks.jar TSBMapBenchmark.getHit -p size=100000 -p keyType=String
+ *
+ * @version Octubre de 2026.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class TSBMapBenchmark
+{
+    @Benchmark
+    public Integer getHit(TSBMapState s)
+    {
+        return s.map.get(s.nextKey());
+    }
+
+    @Benchmark
+    public Integer getMiss(TSBMapState s)
+    {
+        return s.map.get(s.nextMiss());
+    }
+
+    @Benchmark
+    public Integer putUpdate(TSBMapState s)
+    {
+        return s.map.put(s.nextKey(), TSBMapState.ONE);
+    }
+
+    /*
+     * La clave eliminada se vuelve a insertar para que el tamaño de la tabla
+     * no cambie entre invocaciones: el tiempo informado incluye ese put().
+     */
+    @Benchmark
+    public Integer remove(TSBMapState s)
+    {
+        Object key = s.nextKey();
+        Integer value = s.map.remove(key);
+        s.map.put(key, value);
+        return value;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public long iterate(TSBMapState s)
+    {
+        long sum = 0;
+        for(Map.Entry<Object, Integer> e : s.map.entrySet()) sum += e.getValue();
+        return sum;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public Object cloneTable(TSBMapState s) throws CloneNotSupportedException
+    {
+        Map<Object, Integer> m = s.map;
+        if(m instanceof TSB_OAHashtable) return ((TSB_OAHashtable<Object, Integer>) m).clone();
+        if(m instanceof TSBHashtable) return ((TSBHashtable<Object, Integer>) m).clone();
+        return ((HashMap<Object, Integer>) m).clone();
+    }
+}
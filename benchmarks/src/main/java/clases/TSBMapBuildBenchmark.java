@@ -0,0 +1,102 @@
+package clases;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmarks JMH de las operaciones que construyen o reorganizan una tabla
+ * completa: insertar size claves nuevas en una tabla vacía (con la capacidad
+ * inicial por defecto, así que incluye todos los rehash intermedios) y un
+ * rehash() de una tabla cargada. Como cada invocación modifica la tabla, se
+ * mide una sola invocación por iteración (SingleShotTime) sobre una tabla
+ * preparada antes de cada iteración.
+ *
+ * java.util.HashMap no expone su redimensionamiento: su línea de base para
+ * rehash es copiar los pares a un HashMap del doble de capacidad, que es lo
+ * que hace rehash() en las tablas TSB.
+ *
+ * @version Octubre de 2026.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class TSBMapBuildBenchmark
+{
+    /**
+     * Las claves a insertar.
+     */
+    @State(Scope.Benchmark)
+    public static class Keys
+    {
+        @Param({"TSB_OAHashtable", "TSBHashtable", "HashMap"})
+        public String impl;
+
+        @Param({"1000", "10000", "100000", "1000000", "10000000"})
+        public int size;
+
+        @Param({"String", "Integer", "Student"})
+        public String keyType;
+
+        Object keys[];
+
+        @Setup(Level.Trial)
+        public void setUp()
+        {
+            keys = TSBMapState.keys(keyType, size, 0);
+        }
+    }
+
+    /**
+     * Una tabla cargada con las claves, creada de nuevo antes de cada
+     * iteración.
+     */
+    @State(Scope.Benchmark)
+    public static class Filled
+    {
+        Map<Object, Integer> map;
+
+        @Setup(Level.Iteration)
+        public void setUp(Keys k)
+        {
+            map = TSBMapState.newMap(k.impl);
+            TSBMapState.fill(map, k.keys);
+        }
+    }
+
+    @Benchmark
+    public Map<Object, Integer> putNew(Keys k)
+    {
+        Map<Object, Integer> map = TSBMapState.newMap(k.impl);
+        TSBMapState.fill(map, k.keys);
+        return map;
+    }
+
+    @Benchmark
+    public Map<Object, Integer> rehash(Filled f)
+    {
+        Map<Object, Integer> m = f.map;
+        if(m instanceof TSB_OAHashtable) ((TSB_OAHashtable<Object, Integer>) m).rehash();
+        else if(m instanceof TSBHashtable) ((TSBHashtable<Object, Integer>) m).rehash();
+        else
+        {
+            m = new HashMap<>(4 * m.size());
+            m.putAll(f.map);
+        }
+        return m;
+    }
+}
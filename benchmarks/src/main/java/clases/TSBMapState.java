@@ -0,0 +1,156 @@
+package clases;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Estado compartido por los benchmarks de las tablas: una tabla cargada con
+ * size claves del tipo indicado, y una secuencia fija de consultas sobre esas
+ * claves (uniforme, o con distribución de Zipf para imitar la frecuencia de
+ * las palabras de un texto).
+ *
+ * El parámetro impl elige la implementación; "HashMap" es la línea de base
+ * (java.util.HashMap) contra la que se comparan TSB_OAHashtable y
+ * TSBHashtable en cada benchmark.
+ *
+ * Las claves se generan a partir de una biyección sobre los int, así que son
+ * todas distintas y no dependen del orden de ejecución; las claves ausentes
+ * (para las búsquedas fallidas) se generan de la misma forma sobre otros
+ * valores, y nunca coinciden con las presentes.
+ *
+ * @version Octubre de 2026.
+ */
+@State(Scope.Benchmark)
+public class TSBMapState
+{
+    // tamaño de la secuencia de consultas (potencia de 2)...
+    static final int LOOKUPS = 1 << 16;
+    static final int MASK = LOOKUPS - 1;
+
+    // exponente de la distribución de Zipf de las consultas...
+    static final double ZIPF_S = 1.0;
+
+    static final Integer ONE = 1;
+
+    @Param({"TSB_OAHashtable", "TSBHashtable", "HashMap"})
+    public String impl;
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000"})
+    public int size;
+
+    @Param({"uniform", "zipf"})
+    public String distribution;
+
+    @Param({"String", "Integer", "Student"})
+    public String keyType;
+
+    Object keys[];
+    Object misses[];
+    int order[];
+    Map<Object, Integer> map;
+    private int cursor;
+
+    @Setup(Level.Trial)
+    public void setUp()
+    {
+        keys = keys(keyType, size, 0);
+        misses = keys(keyType, LOOKUPS, 1);
+        order = order(distribution, size, LOOKUPS, 42);
+        map = newMap(impl);
+        fill(map, keys);
+    }
+
+    /**
+     * Retorna la siguiente clave presente de la secuencia de consultas.
+     */
+    Object nextKey()
+    {
+        return keys[order[cursor++ & MASK]];
+    }
+
+    /**
+     * Retorna la siguiente clave ausente.
+     */
+    Object nextMiss()
+    {
+        return misses[cursor++ & MASK];
+    }
+
+    //************************ Métodos auxiliares (también para los otros estados).
+
+    /**
+     * Crea una tabla vacía de la implementación indicada, con la capacidad
+     * inicial por defecto.
+     */
+    static Map<Object, Integer> newMap(String impl)
+    {
+        switch(impl)
+        {
+            case "TSB_OAHashtable": return new TSB_OAHashtable<>();
+            case "TSBHashtable": return new TSBHashtable<>();
+            case "HashMap": return new HashMap<>();
+            default: throw new IllegalArgumentException("newMap(): implementación desconocida: " + impl);
+        }
+    }
+
+    static void fill(Map<Object, Integer> map, Object keys[])
+    {
+        for(int i = 0; i < keys.length; i++) map.put(keys[i], i);
+    }
+
+    /**
+     * Genera n claves distintas del tipo indicado. Las claves de la serie 0
+     * nunca coinciden con las de la serie 1.
+     */
+    static Object[] keys(String type, int n, int series)
+    {
+        Object k[] = new Object[n];
+        for(int i = 0; i < n; i++)
+        {
+            int x = mix(2 * i + series);
+            switch(type)
+            {
+                case "String": k[i] = "k" + Integer.toHexString(x); break;
+                case "Integer": k[i] = x; break;
+                case "Student": k[i] = new Student(x, "alumno " + i); break;
+                default: throw new IllegalArgumentException("keys(): tipo de clave desconocido: " + type);
+            }
+        }
+        return k;
+    }
+
+    /**
+     * Genera una secuencia de length índices entre 0 y n - 1 con la
+     * distribución indicada (el índice 0 es el más frecuente con "zipf").
+     */
+    static int[] order(String distribution, int n, int length, long seed)
+    {
+        Random r = new Random(seed);
+        int o[] = new int[length];
+        switch(distribution)
+        {
+            case "uniform":
+                for(int i = 0; i < length; i++) o[i] = r.nextInt(n);
+                break;
+            case "zipf":
+                TSBZipf z = new TSBZipf(n, ZIPF_S);
+                for(int i = 0; i < length; i++) o[i] = z.next(r) - 1;
+                break;
+            default: throw new IllegalArgumentException("order(): distribución desconocida: " + distribution);
+        }
+        return o;
+    }
+
+    // biyección sobre los int (producto por un impar y xor-shift)...
+    private static int mix(int x)
+    {
+        x *= 0x9E3779B9;
+        return x ^ (x >>> 16);
+    }
+}
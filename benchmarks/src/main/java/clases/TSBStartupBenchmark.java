@@ -0,0 +1,296 @@
+package clases;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.Deflater;
+
+/**
+ * Benchmark del arranque del programa (requerimiento 3 del enunciado: la
+ * tabla grabada se levanta cada vez que el programa comienza). Para tablas
+ * de frecuencias de 10^4 a 10^7 palabras distintas, graba la tabla en cada
+ * formato de persistencia y mide, para cada uno:
+ *
+ * - el tiempo de grabación y el tamaño del archivo;
+ * - el tiempo de carga completa;
+ * - el tiempo hasta la primera consulta exitosa (get() de una palabra
+ *   presente), medido desde que se empieza a cargar y desde que arrancó la
+ *   JVM;
+ * - el heap ocupado por la tabla cargada.
+ *
+ * Los formatos son: "serialization" (ObjectOutputStream, el de tabla.ser de
+ * TSBWordStore), "snapshot" (TSBSnapshot sin comprimir), "snapshot-deflate"
+ * (TSBSnapshot comprimido, por bloques y particiones) y "lazy" (el mismo
+ * archivo comprimido, abierto con TSBLazyTable: la primera consulta no
+ * espera la carga completa).
+ *
+ * Cada carga se hace en una JVM nueva (como en un arranque real, sin
+ * clases cargadas ni código compilado por el JIT), RUNS veces por formato.
+ * Los archivos quedan en el caché del sistema operativo luego de grabarlos,
+ * así que los tiempos son los de un arranque con el disco "caliente".
+ *
+ * Los resultados se escriben en formato CSV, una fila por carga.
+ *
+ * Uso: java -cp target/benchmarks.jar clases.TSBStartupBenchmark salida.csv [palabras]...
+ * (con "-" como salida, el CSV se escribe en la salida estándar; por
+ * defecto, 10000 100000 1000000 10000000 palabras).
+ *
+ * @version Octubre de 2026.
+ */
+public class TSBStartupBenchmark
+{
+    private static final int BUFFER = 1 << 16;
+    private static final int RUNS = 3;
+    private static final long SEED = 20261018L;
+
+    static final String FORMATS[] = {"serialization", "snapshot", "snapshot-deflate", "lazy"};
+
+    static final String HEADER = "words,format,run,file_bytes,save_ms,load_ms,first_get_ms,jvm_first_get_ms,heap_bytes";
+
+    // la tabla cargada por load(), para que siga viva al medir el heap...
+    private static Object loaded_table;
+
+    private final Path dir;
+
+    public TSBStartupBenchmark(Path dir)
+    {
+        this.dir = dir;
+    }
+
+    /**
+     * Crea una tabla de frecuencias con words palabras distintas (las del
+     * vocabulario de TSBCorpusGenerator, con frecuencias que siguen la ley
+     * de Zipf).
+     * @param words la cantidad de palabras.
+     * @return la tabla.
+     */
+    static TSB_OAHashtable<String, Integer> table(int words)
+    {
+        String v[] = new TSBCorpusGenerator(words, SEED).getVocabulary();
+        TSB_OAHashtable<String, Integer> t = new TSB_OAHashtable<>((int) (words / 0.75 + 1));
+        for(int i = 0; i < v.length; i++) t.put(v[i], Math.max(1, words / (i + 1)));
+        return t;
+    }
+
+    /**
+     * Graba la tabla en el formato indicado.
+     * @param table la tabla.
+     * @param format el formato (uno de FORMATS).
+     * @param file el archivo.
+     * @throws IOException si el archivo no puede grabarse.
+     */
+    static void save(TSB_OAHashtable<String, Integer> table, String format, Path file) throws IOException
+    {
+        switch(format)
+        {
+            case "serialization":
+                try(ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(file), BUFFER)))
+                {
+                    out.writeObject(table);
+                }
+                break;
+            case "snapshot":
+                TSBSnapshot.write(table, file);
+                break;
+            case "snapshot-deflate":
+            case "lazy":
+                TSBSnapshot.write(table, file, Deflater.DEFAULT_COMPRESSION);
+                break;
+            default: throw new IllegalArgumentException("save(): formato desconocido: " + format);
+        }
+    }
+
+    /**
+     * Mide, para una cantidad de palabras, la grabación en cada formato y
+     * RUNS cargas de cada archivo (cada una en una JVM nueva), y escribe los
+     * resultados en out.
+     * @param words la cantidad de palabras.
+     * @param out el destino de las filas CSV.
+     * @throws IOException si algún archivo no puede grabarse o leerse, o una
+     *         carga falla.
+     * @throws InterruptedException si el hilo es interrumpido mientras
+     *         espera una carga.
+     */
+    public void run(int words, PrintStream out) throws IOException, InterruptedException
+    {
+        TSB_OAHashtable<String, Integer> table = table(words);
+        String probe = probe(new TSBCorpusGenerator(words, SEED).getVocabulary());
+        for(String format : FORMATS)
+        {
+            Path file = dir.resolve("tabla-" + words + "." + format);
+            long t0 = System.nanoTime();
+            save(table, format, file);
+            long save = System.nanoTime() - t0;
+
+            for(int run = 1; run <= RUNS; run++)
+            {
+                String load[] = this.child(format, file, probe).trim().split(" ");
+                out.println(String.format(Locale.ROOT, "%d,%s,%d,%d,%.3f,%.3f,%.3f,%s,%s",
+                                          words, format, run, Files.size(file), save / 1e6,
+                                          Long.parseLong(load[0]) / 1e6, Long.parseLong(load[1]) / 1e6,
+                                          load[2], load[3]));
+                out.flush();
+            }
+            Files.delete(file);
+        }
+    }
+
+    /*
+     * Elige la palabra a consultar: la primera desde la mitad del vocabulario
+     * (una palabra poco frecuente) escrita sólo con caracteres ASCII, para
+     * pasarla a la otra JVM en la línea de comandos sin problemas de
+     * codificación.
+     */
+    private static String probe(String vocabulary[])
+    {
+        for(int i = 0; i < vocabulary.length; i++)
+        {
+            String w = vocabulary[(vocabulary.length / 2 + i) % vocabulary.length];
+            if(w.chars().allMatch(c -> c < 128)) return w;
+        }
+        throw new IllegalStateException("probe(): el vocabulario no tiene palabras ASCII...");
+    }
+
+    /*
+     * Ejecuta la carga en una JVM nueva (con el mismo classpath y las mismas
+     * opciones de memoria) y retorna lo que informa.
+     */
+    private String child(String format, Path file, String probe) throws IOException, InterruptedException
+    {
+        List<String> cmd = new ArrayList<>();
+        cmd.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        for(String a : ManagementFactory.getRuntimeMXBean().getInputArguments())
+        {
+            if(a.startsWith("-Xm") || a.startsWith("-XX:+Use")) cmd.add(a);
+        }
+        cmd.add("-cp");
+        cmd.add(System.getProperty("java.class.path"));
+        cmd.add(TSBStartupBenchmark.class.getName());
+        cmd.add("--load");
+        cmd.add(format);
+        cmd.add(file.toString());
+        cmd.add(probe);
+
+        Process p = new ProcessBuilder(cmd).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        String line;
+        try(BufferedReader in = new BufferedReader(new InputStreamReader(p.getInputStream(), StandardCharsets.UTF_8)))
+        {
+            line = in.readLine();
+        }
+        if(p.waitFor() != 0 || line == null)
+        {
+            throw new IOException("child(): falló la carga de " + file + " (" + format + ")...");
+        }
+        return line;
+    }
+
+    /*
+     * Carga el archivo en esta JVM y escribe en la salida estándar el tiempo
+     * de carga completa y hasta la primera consulta exitosa (en ns), el
+     * tiempo desde el arranque de la JVM hasta esa consulta (en ms) y el
+     * heap ocupado por la tabla.
+     */
+    @SuppressWarnings("unchecked")
+    private static void load(String format, Path file, String probe) throws Exception
+    {
+        long heap0 = usedHeap();
+        long t0 = System.nanoTime();
+        long first;
+        Integer f;
+        switch(format)
+        {
+            case "serialization":
+                try(ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER)))
+                {
+                    loaded_table = in.readObject();
+                }
+                f = ((TSB_OAHashtable<String, Integer>) loaded_table).get(probe);
+                first = System.nanoTime();
+                break;
+            case "snapshot":
+            case "snapshot-deflate":
+                loaded_table = TSBSnapshot.read(file);
+                f = ((TSB_OAHashtable<String, Integer>) loaded_table).get(probe);
+                first = System.nanoTime();
+                break;
+            case "lazy":
+                TSBLazyTable<String, Integer> lazy = TSBLazyTable.open(file);
+                f = lazy.get(probe);
+                first = System.nanoTime();
+                while(!lazy.isLoaded()) Thread.sleep(1);
+                loaded_table = lazy;
+                break;
+            default: throw new IllegalArgumentException("load(): formato desconocido: " + format);
+        }
+        long loaded = System.nanoTime();
+        long since_start = System.currentTimeMillis() - (loaded - first) / 1_000_000
+                         - ManagementFactory.getRuntimeMXBean().getStartTime();
+        if(f == null) throw new IllegalStateException("load(): la palabra " + probe + " no está en la tabla...");
+
+        long heap = usedHeap() - heap0;
+        System.out.println((loaded - t0) + " " + (first - t0) + " " + since_start + " " + heap);
+    }
+
+    private static long usedHeap()
+    {
+        for(int i = 0; i < 3; i++) System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Ejecuta el benchmark para las cantidades de palabras indicadas (o, con
+     * --load, una carga en esta JVM).
+     * @param args el archivo de salida (o "-") y las cantidades de palabras.
+     * @throws Exception si algún archivo no puede grabarse o leerse.
+     */
+    public static void main(String args[]) throws Exception
+    {
+        if(args.length == 4 && args[0].equals("--load"))
+        {
+            load(args[1], Paths.get(args[2]), args[3]);
+            return;
+        }
+        if(args.length < 1)
+        {
+            System.err.println("Uso: java clases.TSBStartupBenchmark salida.csv [palabras]...");
+            System.exit(1);
+        }
+
+        List<Integer> sizes = new ArrayList<>();
+        for(int i = 1; i < args.length; i++) sizes.add(Integer.parseInt(args[i]));
+        if(sizes.isEmpty())
+        {
+            for(int n = 10_000; n <= 10_000_000; n *= 10) sizes.add(n);
+        }
+
+        Path dir = Files.createTempDirectory("tsb-arranque");
+        try(PrintStream ps = args[0].equals("-") ? null : new PrintStream(Files.newOutputStream(Paths.get(args[0])), true, "UTF-8"))
+        {
+            PrintStream out = (ps == null) ? System.out : ps;
+            out.println(HEADER);
+            TSBStartupBenchmark b = new TSBStartupBenchmark(dir);
+            for(int words : sizes) b.run(words, out);
+        }
+        finally
+        {
+            File d = dir.toFile();
+            File left[] = d.listFiles();
+            if(left != null) for(File x : left) x.delete();
+            d.delete();
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package clases;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Benchmark de punta a punta de la carga de documentos (el caso de uso del
+ * enunciado): para TSB_OAHashtable y TSBHashtable mide el separado de
+ * palabras y conteo de frecuencias de los archivos indicados, la grabación y
+ * recuperación de la tabla por serialización (ObjectOutputStream, como pide
+ * el requerimiento 3) y con TSBSnapshot, y verifica que las tablas
+ * recuperadas sean iguales a la original.
+ *
+ * Para cada tabla informa palabras por segundo, el pico de memoria heap, el
+ * tiempo de recolección de basura y el tamaño de los archivos grabados, en
+ * formato JSON (un objeto por corrida) para poder seguir la evolución de los
+ * resultados entre versiones. Los archivos de entrada pueden generarse con
+ * TSBCorpusGenerator.
+ *
+ * Uso: java -cp target/benchmarks.jar clases.TSBWordCountBenchmark salida.json archivo...
+ * (con "-" como salida, el JSON se escribe en la salida estándar).
+ *
+ * @version Octubre de 2026.
+ */
+public class TSBWordCountBenchmark
+{
+    private static final int BUFFER = 1 << 16;
+
+    private final List<Path> files;
+    private final Path dir;
+
+    public TSBWordCountBenchmark(List<Path> files, Path dir)
+    {
+        this.files = files;
+        this.dir = dir;
+    }
+
+    /**
+     * Ejecuta todas las fases para la tabla indicada y retorna los resultados.
+     * @param name el nombre de la implementación (para el informe).
+     * @param table la tabla vacía en la que se contarán las palabras.
+     * @param empty otra tabla vacía de la misma clase, para recuperar el
+     *        snapshot.
+     * @return los resultados, como pares (nombre, valor) en orden.
+     * @throws IOException si algún archivo no puede leerse o grabarse.
+     * @throws ClassNotFoundException si la tabla serializada no puede
+     *         recuperarse.
+     */
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> run(String name, Map<String, Integer> table, Map<String, Integer> empty)
+            throws IOException, ClassNotFoundException
+    {
+        System.gc();
+        resetPeaks();
+        long gc0 = gcMillis();
+
+        // separar y contar...
+        long t0 = System.nanoTime();
+        long bytes = 0;
+        TSBWordTokenizer.WordSink sink;
+        if(table instanceof TSB_OAHashtable)
+        {
+            TSB_OAHashtable<String, Integer> oa = (TSB_OAHashtable<String, Integer>) table;
+            sink = (buf, off, len) -> oa.increment(buf, off, len, 1);
+        }
+        else
+        {
+            sink = (buf, off, len) ->
+            {
+                String w = new String(buf, off, len);
+                Integer f = table.get(w);
+                table.put(w, (f == null) ? 1 : f + 1);
+            };
+        }
+        TSBWordTokenizer tokenizer = new TSBWordTokenizer(sink);
+        char buf[] = new char[BUFFER];
+        for(Path file : files)
+        {
+            bytes += Files.size(file);
+            try(Reader in = new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8))
+            {
+                int n;
+                while((n = in.read(buf)) > 0) tokenizer.feed(buf, 0, n);
+            }
+            tokenizer.finish();
+        }
+        long words = tokenizer.words();
+        long countNanos = System.nanoTime() - t0;
+
+        // serialización...
+        Path ser = dir.resolve(name + ".ser");
+        t0 = System.nanoTime();
+        try(ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(ser), BUFFER)))
+        {
+            out.writeObject(table);
+        }
+        long serializeNanos = System.nanoTime() - t0;
+
+        t0 = System.nanoTime();
+        Object back;
+        try(ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(ser), BUFFER)))
+        {
+            back = in.readObject();
+        }
+        long deserializeNanos = System.nanoTime() - t0;
+        boolean ok = table.equals(back);
+        back = null;
+
+        // snapshot...
+        Path snap = dir.resolve(name + ".snap");
+        TSBSnapshot.Result r = TSBSnapshot.write(table, snap);
+        t0 = System.nanoTime();
+        TSBSnapshot.read(snap, empty);
+        long snapshotReadNanos = System.nanoTime() - t0;
+        ok &= table.equals(empty);
+
+        Map<String, Object> m = new LinkedHashMap<>();
+        m.put("impl", name);
+        m.put("bytes", bytes);
+        m.put("words", words);
+        m.put("distinctWords", table.size());
+        m.put("countNanos", countNanos);
+        m.put("wordsPerSecond", words * 1e9 / countNanos);
+        m.put("serializedBytes", Files.size(ser));
+        m.put("serializeNanos", serializeNanos);
+        m.put("deserializeNanos", deserializeNanos);
+        m.put("snapshotBytes", r.getBytes());
+        m.put("snapshotWriteNanos", r.getCaptureNanos() + r.getWriteNanos());
+        m.put("snapshotReadNanos", snapshotReadNanos);
+        m.put("reloadOk", ok);
+        m.put("peakHeapBytes", peakHeap());
+        m.put("gcMillis", gcMillis() - gc0);
+
+        Files.delete(ser);
+        Files.delete(snap);
+        return m;
+    }
+
+    //************************ Métricas de la JVM.
+
+    private static void resetPeaks()
+    {
+        for(MemoryPoolMXBean p : ManagementFactory.getMemoryPoolMXBeans())
+        {
+            if(p.getType() == MemoryType.HEAP) p.resetPeakUsage();
+        }
+    }
+
+    // suma de los picos de cada zona del heap (una cota superior del pico total)...
+    private static long peakHeap()
+    {
+        long peak = 0;
+        for(MemoryPoolMXBean p : ManagementFactory.getMemoryPoolMXBeans())
+        {
+            if(p.getType() == MemoryType.HEAP) peak += p.getPeakUsage().getUsed();
+        }
+        return peak;
+    }
+
+    private static long gcMillis()
+    {
+        long ms = 0;
+        for(GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+        {
+            ms += Math.max(0, gc.getCollectionTime());
+        }
+        return ms;
+    }
+
+    //************************ Salida JSON.
+
+    private static String json(Object value)
+    {
+        if(value instanceof Map)
+        {
+            StringBuilder sb = new StringBuilder("{");
+            for(Map.Entry<?, ?> e : ((Map<?, ?>) value).entrySet())
+            {
+                if(sb.length() > 1) sb.append(", ");
+                sb.append(json(e.getKey().toString())).append(": ").append(json(e.getValue()));
+            }
+            return sb.append('}').toString();
+        }
+        if(value instanceof List)
+        {
+            StringBuilder sb = new StringBuilder("[");
+            for(Object o : (List<?>) value)
+            {
+                if(sb.length() > 1) sb.append(",\n    ");
+                sb.append(json(o));
+            }
+            return sb.append(']').toString();
+        }
+        if(value instanceof Double) return String.format(Locale.ROOT, "%.1f", (Double) value);
+        if(value instanceof Number || value instanceof Boolean) return value.toString();
+
+        StringBuilder sb = new StringBuilder("\"");
+        for(char c : value.toString().toCharArray())
+        {
+            if(c == '"' || c == '\\') sb.append('\\').append(c);
+            else if(c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+            else sb.append(c);
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * Ejecuta el benchmark sobre los archivos indicados y graba los
+     * resultados en formato JSON.
+     * @param args el archivo de salida (o "-") y los archivos a procesar.
+     * @throws Exception si algún archivo no puede leerse o grabarse.
+     */
+    public static void main(String args[]) throws Exception
+    {
+        if(args.length < 2)
+        {
+            System.err.println("Uso: java clases.TSBWordCountBenchmark salida.json archivo...");
+            System.exit(1);
+        }
+        List<Path> files = new ArrayList<>();
+        for(int i = 1; i < args.length; i++) files.add(Paths.get(args[i]));
+
+        Path dir = Files.createTempDirectory("tsb-bench");
+        TSBWordCountBenchmark b = new TSBWordCountBenchmark(files, dir);
+        List<Object> results = new ArrayList<>();
+        try
+        {
+            results.add(b.run("TSB_OAHashtable", new TSB_OAHashtable<>(), new TSB_OAHashtable<>()));
+            results.add(b.run("TSBHashtable", new TSBHashtable<>(), new TSBHashtable<>()));
+        }
+        finally
+        {
+            Files.delete(dir);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", Instant.now().toString());
+        report.put("java", System.getProperty("java.version"));
+        report.put("vm", System.getProperty("java.vm.name"));
+        report.put("processors", Runtime.getRuntime().availableProcessors());
+        report.put("maxHeapBytes", Runtime.getRuntime().maxMemory());
+        report.put("files", files.size());
+        report.put("results", results);
+
+        String text = json(report).replace("\"results\": [", "\"results\": [\n    ") + "\n";
+        if(args[0].equals("-")) System.out.print(text);
+        else
+        {
+            try(PrintStream out = new PrintStream(Files.newOutputStream(Paths.get(args[0])), true, "UTF-8"))
+            {
+                out.print(text);
+            }
+            System.out.print(text);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package clases;
+
+import java.util.Random;
+
+/**
+ * Generador de rangos (entre 1 y n) con distribución de Zipf de exponente s:
+ * el rango k aparece con probabilidad proporcional a 1 / k^s. Es la
+ * distribución que siguen las frecuencias de las palabras de un texto (unas
+ * pocas palabras muy frecuentes y muchas palabras raras).
+ *
+ * Usa el método de rechazo-inversión de Hörmann y Derflinger, que no
+ * necesita tablas auxiliares (la cantidad de rangos puede ser de millones) y
+ * genera cada rango en tiempo constante. Para la misma semilla, la secuencia
+ * generada es siempre la misma.
+ *
+ * @version Octubre de 2026.
+ */
+public class TSBZipf
+{
+    private final int n;
+    private final double s;
+    private final double hIntegralX1;
+    private final double hIntegralN;
+    private final double threshold;
+
+    /**
+     * Crea un generador para los rangos 1..n con exponente s.
+     * @param n la cantidad de rangos.
+     * @param s el exponente (mayor a 0; 1 para el caso clásico).
+     * @throws IllegalArgumentException si n < 1 o s <= 0.
+     */
+    public TSBZipf(int n, double s)
+    {
+        if(n < 1 || !(s > 0)) throw new IllegalArgumentException("TSBZipf(): parámetros inválidos...");
+        this.n = n;
+        this.s = s;
+        this.hIntegralX1 = hIntegral(1.5) - 1.0;
+        this.hIntegralN = hIntegral(n + 0.5);
+        this.threshold = 2.0 - hIntegralInverse(hIntegral(2.5) - h(2));
+    }
+
+    /**
+     * Retorna el siguiente rango, entre 1 y n.
+     * @param random el generador de números aleatorios a usar.
+     * @return un rango entre 1 y n.
+     */
+    public int next(Random random)
+    {
+        while(true)
+        {
+            double u = hIntegralN + random.nextDouble() * (hIntegralX1 - hIntegralN);
+            double x = hIntegralInverse(u);
+            int k = (int) (x + 0.5);
+            if(k < 1) k = 1;
+            else if(k > n) k = n;
+            if(k - x <= threshold || u >= hIntegral(k + 0.5) - h(k)) return k;
+        }
+    }
+
+    public int getN()
+    {
+        return n;
+    }
+
+    public double getS()
+    {
+        return s;
+    }
+
+    //************************ Métodos privados.
+
+    // integral de h(x) = 1 / x^s, desplazada para que H(1) = 0...
+    private double hIntegral(double x)
+    {
+        double lx = Math.log(x);
+        return helper2((1.0 - s) * lx) * lx;
+    }
+
+    private double h(double x)
+    {
+        return Math.exp(-s * Math.log(x));
+    }
+
+    private double hIntegralInverse(double x)
+    {
+        double t = x * (1.0 - s);
+        if(t < -1.0) t = -1.0;
+        return Math.exp(helper1(t) * x);
+    }
+
+    // log(1 + x) / x, estable para x cercano a 0...
+    private static double helper1(double x)
+    {
+        if(Math.abs(x) > 1e-8) return Math.log1p(x) / x;
+        return 1.0 - x * (0.5 - x * (1.0 / 3.0 - 0.25 * x));
+    }
+
+    // (e^x - 1) / x, estable para x cercano a 0...
+    private static double helper2(double x)
+    {
+        if(Math.abs(x) > 1e-8) return Math.expm1(x) / x;
+        return 1.0 + x * 0.5 * (1.0 + x * (1.0 / 3.0) * (1.0 + 0.25 * x));
+    }
+}
@@ -13,6 +13,15 @@ import java.util.Objects;
  */
 public class Student 
 {
+    public Student()
+    {
+    }
+
+    public Student(int legajo, String nombre)
+    {
+        this.legajo = legajo;
+        this.nombre = nombre;
+    }
 
     @Override
     public int hashCode() 
@@ -0,0 +1,182 @@
+package clases;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Verificación de que los caminos más usados de las tablas no crean objetos:
+ * get() (exitoso y fallido), put() que reemplaza el valor de una clave
+ * presente, getChars() e increment() sobre TSB_OAHashtable, y get() y put()
+ * sobre TSBHashtable. Cada operación se ejecuta primero muchas veces (para
+ * que actúe el compilador JIT) y luego se mide, con
+ * com.sun.management.ThreadMXBean.getThreadAllocatedBytes(), cuántos bytes
+ * se reservaron en el heap por operación.
+ *
+ * El máximo permitido es 0 bytes por operación, salvo para increment() con
+ * frecuencias mayores a 127: el valor de la tabla es un Integer, así que
+ * cada nueva frecuencia fuera del caché de Integer.valueOf() crea
+ * exactamente un Integer. Si alguien vuelve a introducir un boxing, un
+ * iterador o un String temporal en estos caminos, la verificación falla y el
+ * programa termina con código 1 (así falla el build con mvn verify, ver
+ * pom.xml).
+ *
+ * Uso: java clases.TSBAllocationCheck [operaciones]
+ *
+ * @version Octubre de 2026.
+ */
+public class TSBAllocationCheck
+{
+    /**
+     * Una operación a medir; i es el número de invocación.
+     */
+    public interface Op
+    {
+        void run(int i);
+    }
+
+    private static final int KEYS = 1 << 12;
+    private static final int MASK = KEYS - 1;
+
+    private final com.sun.management.ThreadMXBean threads;
+    private final long thread;
+    private final int ops;
+    private int failures;
+
+    // el resultado de las operaciones, para que el JIT no las elimine...
+    private long sink;
+
+    public TSBAllocationCheck(int ops)
+    {
+        this.threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        if(!threads.isThreadAllocatedMemorySupported())
+        {
+            throw new UnsupportedOperationException("TSBAllocationCheck(): la JVM no mide la memoria reservada por hilo...");
+        }
+        threads.setThreadAllocatedMemoryEnabled(true);
+        this.thread = Thread.currentThread().getId();
+        this.ops = ops;
+    }
+
+    /**
+     * Retorna la cantidad promedio de bytes reservados por cada ejecución de
+     * op, luego de ejecutarla varias veces para calentar el JIT.
+     * @param op la operación a medir.
+     * @return los bytes reservados por operación.
+     */
+    public double allocatedPerOp(Op op)
+    {
+        for(int round = 0; round < 5; round++)
+        {
+            for(int i = 0; i < ops; i++) op.run(i);
+        }
+
+        // se mide dos veces y se toma el mínimo, para descartar reservas
+        // ajenas a la operación (por ejemplo, del propio JIT)...
+        long best = Long.MAX_VALUE;
+        for(int round = 0; round < 2; round++)
+        {
+            long before = threads.getThreadAllocatedBytes(thread);
+            for(int i = 0; i < ops; i++) op.run(i);
+            long after = threads.getThreadAllocatedBytes(thread);
+            best = Math.min(best, after - before);
+        }
+        return (double) best / ops;
+    }
+
+    /**
+     * Mide la operación y la informa como fallida si reserva más de max
+     * bytes por operación.
+     * @param name el nombre de la operación.
+     * @param max los bytes permitidos por operación.
+     * @param op la operación.
+     * @return true si la operación no superó el máximo.
+     */
+    public boolean check(String name, double max, Op op)
+    {
+        double bytes = this.allocatedPerOp(op);
+
+        // un margen de 1 byte cada 1000 operaciones para las mediciones...
+        boolean ok = bytes <= max + 0.001;
+        if(!ok) failures++;
+        System.out.printf("%-6s %-40s %10.3f bytes/op (máximo %.0f)%n", ok ? "OK" : "FALLA", name, bytes, max);
+        return ok;
+    }
+
+    public int getFailures()
+    {
+        return failures;
+    }
+
+    /**
+     * Ejecuta todas las verificaciones.
+     * @return la cantidad de verificaciones fallidas.
+     */
+    public int run()
+    {
+        String words[] = new String[KEYS];
+        String absent[] = new String[KEYS];
+        char chars[][] = new char[KEYS][];
+        Integer values[] = new Integer[KEYS];
+        for(int i = 0; i < KEYS; i++)
+        {
+            words[i] = "palabra" + i;
+            absent[i] = "ausente" + i;
+            chars[i] = words[i].toCharArray();
+            values[i] = 1000 + i;
+
+            // que los hash de los String queden calculados...
+            words[i].hashCode();
+            absent[i].hashCode();
+        }
+
+        TSB_OAHashtable<String, Integer> oa = new TSB_OAHashtable<>();
+        TSBHashtable<String, Integer> ch = new TSBHashtable<>();
+        for(int i = 0; i < KEYS; i++)
+        {
+            oa.put(words[i], 1);
+            ch.put(words[i], 1);
+        }
+
+        this.check("TSB_OAHashtable.get() exitoso", 0, i -> sink += oa.get(words[i & MASK]));
+        this.check("TSB_OAHashtable.get() fallido", 0, i -> sink += (oa.get(absent[i & MASK]) == null) ? 1 : 0);
+        this.check("TSB_OAHashtable.containsKey()", 0, i -> sink += oa.containsKey(words[i & MASK]) ? 1 : 0);
+        this.check("TSB_OAHashtable.put() (reemplazo)", 0, i -> oa.put(words[i & MASK], values[i & MASK]));
+        this.check("TSB_OAHashtable.getChars()", 0, i -> sink += oa.getChars(chars[i & MASK], 0, chars[i & MASK].length));
+
+        // frecuencias entre 1 y 2: siempre dentro del caché de Integer...
+        for(int i = 0; i < KEYS; i++) oa.put(words[i], 1);
+        this.check("TSB_OAHashtable.increment() (caché)", 0, i ->
+        {
+            char c[] = chars[i & MASK];
+            sink += oa.increment(c, 0, c.length, ((i >> 12) & 1) == 0 ? 1 : -1);
+        });
+
+        // frecuencias grandes: un Integer nuevo por operación...
+        long integer = TSBMemoryModel.detect().shallow(Integer.class);
+        for(int i = 0; i < KEYS; i++) oa.put(words[i], 1000);
+        this.check("TSB_OAHashtable.increment()", integer, i ->
+        {
+            char c[] = chars[i & MASK];
+            sink += oa.increment(c, 0, c.length, 1);
+        });
+
+        this.check("TSBHashtable.get() exitoso", 0, i -> sink += ch.get(words[i & MASK]));
+        this.check("TSBHashtable.get() fallido", 0, i -> sink += (ch.get(absent[i & MASK]) == null) ? 1 : 0);
+        this.check("TSBHashtable.containsKey()", 0, i -> sink += ch.containsKey(words[i & MASK]) ? 1 : 0);
+        this.check("TSBHashtable.put() (reemplazo)", 0, i -> ch.put(words[i & MASK], values[i & MASK]));
+
+        return failures;
+    }
+
+    public static void main(String args[])
+    {
+        int ops = (args.length > 0) ? Integer.parseInt(args[0]) : 1_000_000;
+        TSBAllocationCheck check = new TSBAllocationCheck(ops);
+        int failures = check.run();
+        if(failures > 0)
+        {
+            System.out.println(failures + " verificaciones fallidas");
+            System.exit(1);
+        }
+        System.out.println("Todas las verificaciones pasaron");
+    }
+}
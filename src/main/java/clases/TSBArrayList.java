@@ -1,10 +1,23 @@
 package clases;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.AbstractList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.RandomAccess;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Una clase para emular el concepto de lista implementada sobre un arreglo, tal
@@ -29,14 +42,19 @@ import java.util.RandomAccess;
 public class TSBArrayList<E> extends AbstractList<E> 
              implements List<E>, RandomAccess, Cloneable, Serializable
 {
-    // el arreglo que contendrá los elementos...
-    private Object[] items;
+    // el arreglo que contendrá los elementos (se serializa en forma compacta:
+    // ver writeObject() y readObject())...
+    private transient Object[] items;
     
     // el tamaño inicial del arreglo...
     private int initial_capacity;
     
     // la cantidad de casillas realmente usadas...
     private int count;
+    
+    // la lista achica su arreglo sólo si la ocupación cae por debajo de 
+    // 1/SHRINK_THRESHOLD de la capacidad (histéresis entre crecer y achicar)...
+    private static final int SHRINK_THRESHOLD = 4;
 
     /**
      * Crea una lista con capacidad inicial de 10 casilleros, pero ninguno
@@ -103,7 +121,7 @@ public class TSBArrayList<E> extends AbstractList<E>
         
         if(e == null) return;
         
-        if(count == items.length) this.ensureCapacity(items.length * 2);
+        if(count == items.length) this.grow();
         
         int t = count - index;
         System.arraycopy(items, index, items, index+1, t);
@@ -115,6 +133,71 @@ public class TSBArrayList<E> extends AbstractList<E>
         this.modCount++;  
     }   
     
+    /**
+     * Agrega al final de la lista todos los elementos de la colección c, en el
+     * orden en que los retorna su iterador. Los elementos null de c son 
+     * ignorados (igual que en add()). El arreglo de soporte se agranda a lo 
+     * sumo una vez, y los elementos se copian con un único arraycopy.
+     * @param c la colección cuyos elementos serán agregados.
+     * @return true si la lista cambió como resultado de la invocación.
+     * @throws NullPointerException si c es null.
+     */
+    @Override
+    public boolean addAll(Collection<? extends E> c)
+    {
+        return this.addAll(count, c);
+    }
+    
+    /**
+     * Inserta a partir de la posición index todos los elementos de la colección
+     * c, en el orden en que los retorna su iterador. Los elementos que estaban 
+     * desde index en adelante se desplazan (una sola vez) hacia la derecha. Los 
+     * elementos null de c son ignorados (igual que en add()).
+     * @param index la posición donde se insertará el primer elemento de c.
+     * @param c la colección cuyos elementos serán agregados.
+     * @return true si la lista cambió como resultado de la invocación.
+     * @throws IndexOutOfBoundsException si index < 0 o index > size().
+     * @throws NullPointerException si c es null.
+     */
+    @Override
+    public boolean addAll(int index, Collection<? extends E> c)
+    {
+        if(index > count || index < 0)
+        {
+            throw new IndexOutOfBoundsException("addAll(): índice fuera de rango...");
+        }
+        
+        Object a[] = c.toArray();
+        int n = compact(a);
+        if(n == 0) return false;
+        
+        if(count + n > items.length) 
+        {
+            this.ensureCapacity(Math.max(count + n, items.length * 2));
+        }
+        
+        System.arraycopy(items, index, items, index + n, count - index);
+        System.arraycopy(a, 0, items, index, n);
+        count += n;
+        
+        this.modCount++;
+        return true;
+    }
+    
+    /*
+     * Desplaza hacia el inicio los elementos no nulos del arreglo a y retorna 
+     * cuántos son (la lista no admite referencias null).
+     */
+    private static int compact(Object a[])
+    {
+        int n = 0;
+        for(int i = 0; i < a.length; i++)
+        {
+            if(a[i] != null) a[n++] = a[i];
+        }
+        return n;
+    }
+    
     /**
      * Elimina todo el contenido de la lista, y reinicia su capacidad al valor
      * de la capacidad con que fue creada originalmente. La lista queda vacía 
@@ -189,6 +272,55 @@ public class TSBArrayList<E> extends AbstractList<E>
         items = temp;
     }
     
+    /**
+     * Reduce a la mitad la capacidad del arreglo de soporte, pero sólo si la 
+     * cantidad de elementos cayó por debajo de 1/4 de esa capacidad, y nunca
+     * por debajo de la capacidad inicial de la lista. Como add() duplica el
+     * arreglo cuando está lleno, luego de crecer o de achicarse la lista queda
+     * siempre a la mitad de su capacidad: una secuencia que alterne add() y 
+     * remove() en torno a un mismo tamaño no provoca redimensionamientos 
+     * sucesivos (el costo de copiar el arreglo se amortiza en O(1) por cada 
+     * operación). Este método es invocado por remove(), y puede ser invocado 
+     * por las clases que usen la lista como soporte (por ejemplo, los buckets 
+     * de TSBHashtable) luego de eliminar elementos en forma directa.
+     * @return true si el arreglo de soporte fue efectivamente reducido.
+     */
+    public boolean shrinkIfSparse()
+    {
+        int t = items.length;
+        if(count >= t / SHRINK_THRESHOLD) return false;
+        
+        int n = Math.max(t / 2, initial_capacity);
+        if(n >= t) return false;
+        
+        this.ensureCapacity(n);
+        return true;
+    }
+    
+    /**
+     * Aplica la acción indicada a cada elemento de la lista, en orden. Lanza 
+     * ConcurrentModificationException si la lista es modificada durante el 
+     * recorrido.
+     * @param action la acción a aplicar sobre cada elemento.
+     * @throws NullPointerException si action es null.
+     */
+    @Override
+    public void forEach(Consumer<? super E> action)
+    {
+        Objects.requireNonNull(action);
+        int expected_modCount = this.modCount;
+        Object a[] = items;
+        int n = count;
+        for(int i = 0; i < n && this.modCount == expected_modCount; i++)
+        {
+            action.accept((E) a[i]);
+        }
+        if(this.modCount != expected_modCount)
+        {
+            throw new ConcurrentModificationException("forEach(): modificación inesperada de la lista...");
+        }
+    }
+    
     /**
      * Retorna el objeto contenido en la casilla index. Si el valor de index no 
      * es válido, el método lanzará una excepción de la clase
@@ -208,6 +340,24 @@ public class TSBArrayList<E> extends AbstractList<E>
         return (E) items[index];
     }
     
+    /**
+     * Retorna el índice de la primera ocurrencia de o en la lista, o -1 si la
+     * lista no contiene a o (o si o es null).
+     * @param o el objeto a buscar.
+     * @return el índice de la primera ocurrencia de o, o -1 si no está.
+     */
+    @Override
+    public int indexOf(Object o)
+    {
+        if(o == null) return -1;
+        
+        for(int i = 0; i < count; i++)
+        {
+            if(o.equals(items[i])) return i;
+        }
+        return -1;
+    }
+    
     /**
      * Devuelve true si la lista no contiene elementos.
      * @return true si la lista está vacía.
@@ -218,11 +368,71 @@ public class TSBArrayList<E> extends AbstractList<E>
         return (count == 0);
     }   
     
+    /**
+     * Retorna un iterador sobre los elementos de la lista, que los accede en 
+     * forma directa en el arreglo de soporte. El iterador es fail-fast: lanza
+     * ConcurrentModificationException si la lista cambia por fuera de él.
+     * @return un iterador sobre los elementos de la lista.
+     */
+    @Override
+    public Iterator<E> iterator()
+    {
+        return new Itr(0);
+    }
+    
+    /**
+     * Retorna el índice de la última ocurrencia de o en la lista, o -1 si la
+     * lista no contiene a o (o si o es null).
+     * @param o el objeto a buscar.
+     * @return el índice de la última ocurrencia de o, o -1 si no está.
+     */
+    @Override
+    public int lastIndexOf(Object o)
+    {
+        if(o == null) return -1;
+        
+        for(int i = count - 1; i >= 0; i--)
+        {
+            if(o.equals(items[i])) return i;
+        }
+        return -1;
+    }
+    
+    /**
+     * Retorna un iterador de lista (ListIterator) posicionado al inicio de la 
+     * lista. Igual que iterator(), accede directamente al arreglo de soporte y 
+     * es fail-fast.
+     * @return un iterador de lista posicionado en el primer elemento.
+     */
+    @Override
+    public ListIterator<E> listIterator()
+    {
+        return new ListItr(0);
+    }
+    
+    /**
+     * Retorna un iterador de lista (ListIterator) posicionado de forma que la 
+     * primera invocación a next() retorne el elemento en la posición index.
+     * @param index la posición del primer elemento a retornar por next().
+     * @return un iterador de lista posicionado en index.
+     * @throws IndexOutOfBoundsException si index < 0 o index > size().
+     */
+    @Override
+    public ListIterator<E> listIterator(int index)
+    {
+        if(index > count || index < 0)
+        {
+            throw new IndexOutOfBoundsException("listIterator(): índice fuera de rango...");
+        }
+        return new ListItr(index);
+    }
+    
     /**
      * Remueve de la lista el elemento contenido en la posición index. Los 
      * objetos ubicados a la derecha de este, se desplazan un casillero a la 
-     * izquierda. El objeto removido es retornado. La capacidad de la lista no
-     * se altera. Si el valor de index no es válido, el método lanzará una 
+     * izquierda. El objeto removido es retornado. La capacidad de la lista se
+     * reduce a la mitad sólo si la ocupación cae por debajo de 1/4 (ver 
+     * shrinkIfSparse()). Si el valor de index no es válido, el método lanzará una 
      * excepción de IndexOutOfBoundsException. Este método es sugerido desde la 
      * documentación de la clase AbstractList.
      * @param index el índice de la casilla a remover.
@@ -237,15 +447,14 @@ public class TSBArrayList<E> extends AbstractList<E>
             throw new IndexOutOfBoundsException("remove(): índice fuera de rango...");
         }
         
-        int t = items.length;
-        if(count < t/2) this.ensureCapacity(t/2);
-        
         Object old = items[index];
         int n = count;
         System.arraycopy(items, index+1, items, index, n-index-1);
         count--;
         items[count] = null;
         
+        this.shrinkIfSparse();
+        
         // detección rápida de fallas en el iterador (fail-fast iterator)...
         // modCount se hereda desde AbstractList y es protected...
         this.modCount++; 
@@ -253,6 +462,153 @@ public class TSBArrayList<E> extends AbstractList<E>
         return (E) old;
     }
 
+    /**
+     * Elimina de la lista todos los elementos que estén contenidos en la 
+     * colección c. Se hace en una sola pasada sobre el arreglo de soporte, 
+     * compactando los elementos que se conservan.
+     * @param c la colección con los elementos a eliminar.
+     * @return true si la lista cambió como resultado de la invocación.
+     * @throws NullPointerException si c es null.
+     */
+    @Override
+    public boolean removeAll(Collection<?> c)
+    {
+        Objects.requireNonNull(c);
+        return this.batchRemove(c, false);
+    }
+    
+    /**
+     * Elimina de la lista todos los elementos que cumplan con el predicado 
+     * filter, en una sola pasada sobre el arreglo de soporte. 
+     * @param filter el predicado que indica qué elementos eliminar.
+     * @return true si se eliminó al menos un elemento.
+     * @throws NullPointerException si filter es null.
+     */
+    @Override
+    public boolean removeIf(Predicate<? super E> filter)
+    {
+        Objects.requireNonNull(filter);
+        int expected_modCount = this.modCount;
+        Object a[] = items;
+        int n = count;
+        int r = 0, w = 0;
+        try
+        {
+            for(; r < n; r++)
+            {
+                Object x = a[r];
+                if(!filter.test((E) x)) a[w++] = x;
+            }
+        }
+        finally
+        {
+            // si filter lanzó una excepción, se conservan los elementos que
+            // faltaba revisar...
+            if(r != n)
+            {
+                this.truncate(this.keepTail(r, w, n));
+            }
+        }
+        if(this.modCount != expected_modCount)
+        {
+            throw new ConcurrentModificationException("removeIf(): modificación inesperada de la lista...");
+        }
+        return this.truncate(w);
+    }
+    
+    /**
+     * Elimina de la lista los elementos ubicados entre las posiciones 
+     * fromIndex (incluida) y toIndex (excluida), con un único desplazamiento 
+     * de los elementos que siguen a toIndex. Este método es sugerido desde la
+     * documentación de la clase AbstractList (y es usado por subList().clear()).
+     * @param fromIndex índice del primer elemento a eliminar.
+     * @param toIndex índice siguiente al último elemento a eliminar.
+     */
+    @Override
+    protected void removeRange(int fromIndex, int toIndex)
+    {
+        if(fromIndex < 0 || toIndex > count || fromIndex > toIndex)
+        {
+            throw new IndexOutOfBoundsException("removeRange(): índice fuera de rango...");
+        }
+        if(fromIndex == toIndex) return;
+        
+        System.arraycopy(items, toIndex, items, fromIndex, count - toIndex);
+        this.truncate(count - (toIndex - fromIndex));
+    }
+    
+    /**
+     * Conserva en la lista sólo los elementos que estén contenidos en la 
+     * colección c. Se hace en una sola pasada sobre el arreglo de soporte, 
+     * compactando los elementos que se conservan.
+     * @param c la colección con los elementos a conservar.
+     * @return true si la lista cambió como resultado de la invocación.
+     * @throws NullPointerException si c es null.
+     */
+    @Override
+    public boolean retainAll(Collection<?> c)
+    {
+        Objects.requireNonNull(c);
+        return this.batchRemove(c, true);
+    }
+    
+    /*
+     * Compacta el arreglo de soporte conservando los elementos cuya presencia
+     * en c coincide con retain, y ajusta el tamaño de la lista. Si c.contains()
+     * lanza una excepción, la lista queda sin los elementos ya descartados y
+     * con todos los que faltaba revisar (igual que en java.util.ArrayList).
+     */
+    private boolean batchRemove(Collection<?> c, boolean retain)
+    {
+        Object a[] = items;
+        int n = count;
+        int r = 0, w = 0;
+        try
+        {
+            for(; r < n; r++)
+            {
+                Object x = a[r];
+                if(c.contains(x) == retain) a[w++] = x;
+            }
+        }
+        finally
+        {
+            if(r != n)
+            {
+                this.truncate(this.keepTail(r, w, n));
+            }
+        }
+        return this.truncate(w);
+    }
+    
+    /*
+     * Completa una compactación interrumpida en la posición r: mueve los
+     * elementos de r a n - 1 (todavía no revisados) a continuación de los w
+     * conservados, y retorna la nueva cantidad de elementos conservados.
+     */
+    private int keepTail(int r, int w, int n)
+    {
+        System.arraycopy(items, r, items, w, n - r);
+        return w + (n - r);
+    }
+    
+    /*
+     * Deja la lista con sus primeros n elementos, liberando las referencias 
+     * restantes y aplicando la política de achicamiento. Retorna true si la
+     * lista cambió.
+     */
+    private boolean truncate(int n)
+    {
+        if(n == count) return false;
+        
+        Arrays.fill(items, n, count, null);
+        count = n;
+        while(this.shrinkIfSparse());
+        
+        this.modCount++;
+        return true;
+    }
+
     /**
      * Reemplaza el objeto en la posición index por el referido por element, y
      * retorna el objeto originalmente contenido en la posición index. Si el 
@@ -287,6 +643,23 @@ public class TSBArrayList<E> extends AbstractList<E>
     {
         return count;
     }
+    /**
+     * Ordena la lista de acuerdo al orden inducido por el comparador c (o según
+     * el orden natural de los elementos si c es null), ordenando directamente
+     * la porción usada del arreglo de soporte.
+     * @param c el comparador a usar, o null para usar el orden natural.
+     */
+    @Override
+    public void sort(Comparator<? super E> c)
+    {
+        int expected_modCount = this.modCount;
+        Arrays.sort((E[]) items, 0, count, c);
+        if(this.modCount != expected_modCount)
+        {
+            throw new ConcurrentModificationException("sort(): modificación inesperada de la lista...");
+        }
+        this.modCount++;
+    }
        
     @Override
     public String toString()
@@ -305,6 +678,28 @@ public class TSBArrayList<E> extends AbstractList<E>
         return buff.toString();
     }
     
+    /*
+     * Retorna la capacidad actual del arreglo de soporte (para mediciones).
+     */
+    int capacity()
+    {
+        return items.length;
+    }
+    
+    /*
+     * Duplica la capacidad del arreglo de soporte (o la lleva a la capacidad 
+     * inicial si el arreglo quedó vacío luego de un trimToSize(), o a 1 si la
+     * lista se creó a partir de una colección vacía).
+     */
+    private void grow()
+    {
+        int n = items.length * 2;
+        int min = Math.max(initial_capacity, 1);
+        if(n < min) n = min;
+        if(n < 0) n = Integer.MAX_VALUE - 8;
+        this.ensureCapacity(n);
+    }
+    
     /**
      * Ajusta el tamaño del arreglo de soporte, para que coincida con el tamaño
      * de la lista. Puede usarse este método para que un programa ahorre un poco
@@ -318,4 +713,190 @@ public class TSBArrayList<E> extends AbstractList<E>
         System.arraycopy(items, 0, temp, 0, count);
         items = temp;
     }
+    /*
+     * Serializa la lista en forma compacta: luego de los atributos no 
+     * transitorios (initial_capacity y count) se graban sólo los count 
+     * elementos realmente usados, y no las casillas libres del arreglo.
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException
+    {
+        int expected_modCount = this.modCount;
+        out.defaultWriteObject();
+        for(int i = 0; i < count; i++)
+        {
+            out.writeObject(items[i]);
+        }
+        if(this.modCount != expected_modCount)
+        {
+            throw new ConcurrentModificationException("writeObject(): modificación inesperada de la lista...");
+        }
+    }
+    
+    /*
+     * Reconstruye una lista grabada con writeObject(), creando un arreglo de
+     * soporte con la capacidad exacta para los elementos leídos. La capacidad
+     * inicial puede ser 0 (la de una lista creada a partir de una colección
+     * vacía).
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException
+    {
+        in.defaultReadObject();
+        if(count < 0 || initial_capacity < 0)
+        {
+            throw new InvalidObjectException("readObject(): tamaño o capacidad inválidos...");
+        }
+        
+        items = new Object[count];
+        for(int i = 0; i < count; i++)
+        {
+            items[i] = in.readObject();
+        }
+    }
+    
+    /*
+     * Iterador fail-fast que recorre directamente el arreglo de soporte. 
+     * cursor es el índice del próximo elemento a retornar por next(), y
+     * last_index el del último retornado (o -1 si no se puede invocar a 
+     * remove() o set()).
+     */
+    private class Itr implements Iterator<E>
+    {
+        protected int cursor;
+        protected int last_index;
+        protected int expected_modCount;
+        
+        Itr(int index)
+        {
+            cursor = index;
+            last_index = -1;
+            expected_modCount = TSBArrayList.this.modCount;
+        }
+        
+        @Override
+        public boolean hasNext()
+        {
+            return cursor < TSBArrayList.this.count;
+        }
+        
+        @Override
+        public E next()
+        {
+            check_modCount();
+            int i = cursor;
+            if(i >= TSBArrayList.this.count)
+            {
+                throw new NoSuchElementException("next(): no existe el elemento pedido...");
+            }
+            cursor = i + 1;
+            last_index = i;
+            return (E) TSBArrayList.this.items[i];
+        }
+        
+        @Override
+        public void remove()
+        {
+            if(last_index < 0)
+            {
+                throw new IllegalStateException("remove(): debe invocar a next() antes de remove()...");
+            }
+            check_modCount();
+            
+            TSBArrayList.this.remove(last_index);
+            cursor = last_index;
+            last_index = -1;
+            expected_modCount = TSBArrayList.this.modCount;
+        }
+        
+        @Override
+        public void forEachRemaining(Consumer<? super E> action)
+        {
+            Objects.requireNonNull(action);
+            Object a[] = TSBArrayList.this.items;
+            int n = TSBArrayList.this.count;
+            int i = cursor;
+            for(; i < n && TSBArrayList.this.modCount == expected_modCount; i++)
+            {
+                action.accept((E) a[i]);
+            }
+            cursor = i;
+            last_index = i - 1;
+            check_modCount();
+        }
+        
+        protected final void check_modCount()
+        {
+            if(TSBArrayList.this.modCount != expected_modCount)
+            {
+                throw new ConcurrentModificationException("iterator: modificación inesperada de la lista...");
+            }
+        }
+    }
+    
+    /*
+     * Iterador de lista fail-fast, también sobre el arreglo de soporte.
+     */
+    private class ListItr extends Itr implements ListIterator<E>
+    {
+        ListItr(int index)
+        {
+            super(index);
+        }
+        
+        @Override
+        public boolean hasPrevious()
+        {
+            return cursor > 0;
+        }
+        
+        @Override
+        public E previous()
+        {
+            check_modCount();
+            int i = cursor - 1;
+            if(i < 0)
+            {
+                throw new NoSuchElementException("previous(): no existe el elemento pedido...");
+            }
+            cursor = i;
+            last_index = i;
+            return (E) TSBArrayList.this.items[i];
+        }
+        
+        @Override
+        public int nextIndex()
+        {
+            return cursor;
+        }
+        
+        @Override
+        public int previousIndex()
+        {
+            return cursor - 1;
+        }
+        
+        @Override
+        public void set(E e)
+        {
+            if(last_index < 0)
+            {
+                throw new IllegalStateException("set(): debe invocar a next() o previous() antes de set()...");
+            }
+            check_modCount();
+            TSBArrayList.this.set(last_index, e);
+        }
+        
+        @Override
+        public void add(E e)
+        {
+            check_modCount();
+            
+            // la lista no admite null: add() lo ignora sin cambiar nada...
+            if(e == null) return;
+            
+            TSBArrayList.this.add(cursor, e);
+            cursor++;
+            last_index = -1;
+            expected_modCount = TSBArrayList.this.modCount;
+        }
+    }
 }
@@ -0,0 +1,442 @@
+package clases;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.Consumer;
+
+/**
+ * Una lista implementada sobre segmentos (arreglos) de tamaño fijo, pensada
+ * para listas muy grandes (por ejemplo, la secuencia completa de tokens de un
+ * corpus). A diferencia de TSBArrayList, cuando la lista se llena no se crea
+ * un nuevo arreglo contiguo copiando todo el contenido: sólo se agrega un
+ * segmento nuevo. Así se evitan las pausas por copia y la reserva de arreglos
+ * gigantes (que en G1 son objetos "humongous"), y la capacidad deja de estar
+ * limitada a Integer.MAX_VALUE elementos.
+ *
+ * Cada segmento tiene 2^SEGMENT_SHIFT casillas, por lo que un índice largo se
+ * descompone con un desplazamiento y una máscara: el segmento es
+ * (index >>> SEGMENT_SHIFT) y la casilla es (index & SEGMENT_MASK). Los métodos
+ * con índices long (get(long), set(long, E), remove(long), longSize()) dan
+ * acceso a toda la lista. La clase deriva de AbstractList, por lo que puede
+ * usarse como cualquier List mientras su tamaño quepa en un int. Igual que
+ * TSBArrayList, no admite referencias null.
+ *
+ * @version Octubre de 2026.
+ * @param <E> la clase cuyos objetos serán admisibles para la lista.
+ */
+public class TSBBigArrayList<E> extends AbstractList<E>
+             implements RandomAccess, Serializable
+{
+    // el valor calculado por serialver para la primera versión de la clase,
+    // para seguir leyendo las listas ya grabadas...
+    private static final long serialVersionUID = 7213586727597243399L;
+
+    // cantidad de bits del índice que ubican la casilla dentro del segmento...
+    private static final int SEGMENT_SHIFT = 14;
+
+    // tamaño de cada segmento (16384 casillas: 64 KB con compressed oops)...
+    private static final int SEGMENT_SIZE = 1 << SEGMENT_SHIFT;
+
+    // máscara para obtener la casilla dentro del segmento...
+    private static final int SEGMENT_MASK = SEGMENT_SIZE - 1;
+
+    // el directorio de segmentos (sólo se copian referencias al crecer)...
+    private Object[][] segments;
+
+    // la cantidad de segmentos efectivamente creados...
+    private int segment_count;
+
+    // la cantidad de elementos realmente contenidos en la lista...
+    private long count;
+
+    /**
+     * Crea una lista vacía, con un único segmento.
+     */
+    public TSBBigArrayList()
+    {
+        segments = new Object[8][];
+        segments[0] = new Object[SEGMENT_SIZE];
+        segment_count = 1;
+        count = 0;
+    }
+
+    /**
+     * Crea una lista conteniendo los elementos de la colección c, en el orden
+     * en que son retornados por su iterador (los null son ignorados).
+     * @param c la colección cuyos elementos serán copiados en la lista.
+     * @throws NullPointerException si la referencia c es null.
+     */
+    public TSBBigArrayList(Collection<? extends E> c)
+    {
+        this();
+        for(E e : c) this.add(e);
+    }
+
+    /**
+     * Agrega el objeto e al final de la lista. Si el último segmento está
+     * lleno, se agrega un segmento nuevo sin copiar los elementos existentes.
+     * Si e es null, el método retorna false sin hacer nada.
+     * @param e el objeto a agregar.
+     * @return true si el objeto fue agregado.
+     */
+    @Override
+    public boolean add(E e)
+    {
+        if(e == null) return false;
+
+        long n = count;
+        int s = (int)(n >>> SEGMENT_SHIFT);
+        if(s == segment_count) this.addSegment();
+        segments[s][(int)(n & SEGMENT_MASK)] = e;
+        count = n + 1;
+
+        this.modCount++;
+        return true;
+    }
+
+    /**
+     * Añade el objeto e en la posición index de la lista. Ver add(long, E).
+     * @param index el índice de la casilla donde debe quedar el objeto e.
+     * @param e el objeto a agregar en la lista.
+     * @throws IndexOutOfBoundsException si index < 0 o index > longSize().
+     */
+    @Override
+    public void add(int index, E e)
+    {
+        this.add((long) index, e);
+    }
+
+    /**
+     * Añade el objeto e en la posición index de la lista, desplazando una
+     * casilla a la derecha a los elementos que le siguen (con un arraycopy por
+     * segmento involucrado). La inserción se rechaza si e es null.
+     * @param index el índice de la casilla donde debe quedar el objeto e.
+     * @param e el objeto a agregar en la lista.
+     * @throws IndexOutOfBoundsException si index < 0 o index > longSize().
+     */
+    public void add(long index, E e)
+    {
+        if(index > count || index < 0)
+        {
+            throw new IndexOutOfBoundsException("add(): índice fuera de rango...");
+        }
+        if(e == null) return;
+
+        if((int)(count >>> SEGMENT_SHIFT) == segment_count) this.addSegment();
+
+        // desplazar desde el último segmento hacia atrás, pasando el último
+        // elemento de cada segmento al inicio del siguiente...
+        int first = (int)(index >>> SEGMENT_SHIFT);
+        int last = (int)(count >>> SEGMENT_SHIFT);
+        for(int s = last; s > first; s--)
+        {
+            Object seg[] = segments[s];
+            int used = (s == last)? (int)(count & SEGMENT_MASK) : SEGMENT_SIZE;
+            System.arraycopy(seg, 0, seg, 1, Math.min(used, SEGMENT_SIZE - 1));
+            seg[0] = segments[s - 1][SEGMENT_MASK];
+        }
+        Object seg[] = segments[first];
+        int off = (int)(index & SEGMENT_MASK);
+        int end = (first == last)? (int)(count & SEGMENT_MASK) : SEGMENT_MASK;
+        System.arraycopy(seg, off, seg, off + 1, end - off);
+        seg[off] = e;
+        count++;
+
+        this.modCount++;
+    }
+
+    /**
+     * Elimina todo el contenido de la lista, dejando un único segmento.
+     */
+    @Override
+    public void clear()
+    {
+        segments = new Object[8][];
+        segments[0] = new Object[SEGMENT_SIZE];
+        segment_count = 1;
+        count = 0;
+        this.modCount++;
+    }
+
+    /**
+     * Retorna el objeto contenido en la casilla index. Ver get(long).
+     * @param index índice de la casilla a acceder.
+     * @return referencia al objeto contenido en la casilla index.
+     * @throws IndexOutOfBoundsException si index < 0 o index >= longSize().
+     */
+    @Override
+    public E get(int index)
+    {
+        return this.get((long) index);
+    }
+
+    /**
+     * Retorna el objeto contenido en la casilla index, ubicando su segmento
+     * con un desplazamiento y la casilla dentro del segmento con una máscara.
+     * @param index índice de la casilla a acceder.
+     * @return referencia al objeto contenido en la casilla index.
+     * @throws IndexOutOfBoundsException si index < 0 o index >= longSize().
+     */
+    public E get(long index)
+    {
+        if (index < 0 || index >= count)
+        {
+            throw new IndexOutOfBoundsException("get(): índice fuera de rango...");
+        }
+        return (E) segments[(int)(index >>> SEGMENT_SHIFT)][(int)(index & SEGMENT_MASK)];
+    }
+
+    /**
+     * Devuelve true si la lista no contiene elementos.
+     * @return true si la lista está vacía.
+     */
+    @Override
+    public boolean isEmpty()
+    {
+        return (count == 0);
+    }
+
+    /**
+     * Retorna un iterador fail-fast que recorre los segmentos en forma directa.
+     * @return un iterador sobre los elementos de la lista.
+     */
+    @Override
+    public Iterator<E> iterator()
+    {
+        return new Itr();
+    }
+
+    /**
+     * Aplica la acción indicada a cada elemento de la lista, en orden,
+     * recorriendo cada segmento como un arreglo.
+     * @param action la acción a aplicar sobre cada elemento.
+     * @throws NullPointerException si action es null.
+     */
+    @Override
+    public void forEach(Consumer<? super E> action)
+    {
+        Objects.requireNonNull(action);
+        int expected_modCount = this.modCount;
+        long remaining = count;
+        for(int s = 0; remaining > 0; s++)
+        {
+            Object seg[] = segments[s];
+            int n = (int) Math.min(remaining, SEGMENT_SIZE);
+            for(int i = 0; i < n; i++) action.accept((E) seg[i]);
+            remaining -= n;
+            if(this.modCount != expected_modCount)
+            {
+                throw new ConcurrentModificationException("forEach(): modificación inesperada de la lista...");
+            }
+        }
+    }
+
+    /**
+     * Retorna el tamaño real de la lista, aunque supere Integer.MAX_VALUE.
+     * @return la cantidad de elementos que la lista contiene.
+     */
+    public long longSize()
+    {
+        return count;
+    }
+
+    /**
+     * Remueve el elemento contenido en la posición index. Ver remove(long).
+     * @param index el índice de la casilla a remover.
+     * @return el objeto removido de la lista.
+     * @throws IndexOutOfBoundsException si index < 0 o index >= longSize().
+     */
+    @Override
+    public E remove(int index)
+    {
+        return this.remove((long) index);
+    }
+
+    /**
+     * Remueve de la lista el elemento contenido en la posición index. Los
+     * objetos ubicados a la derecha se desplazan una casilla a la izquierda
+     * (con un arraycopy por segmento involucrado; remover el último elemento
+     * es O(1)). Los segmentos que quedan vacíos al final se liberan,
+     * conservando siempre uno de reserva para que una secuencia que alterne
+     * add() y remove() en el borde de un segmento no los cree y libere
+     * continuamente.
+     * @param index el índice de la casilla a remover.
+     * @return el objeto removido de la lista.
+     * @throws IndexOutOfBoundsException si index < 0 o index >= longSize().
+     */
+    public E remove(long index)
+    {
+        if(index >= count || index < 0)
+        {
+            throw new IndexOutOfBoundsException("remove(): índice fuera de rango...");
+        }
+
+        int first = (int)(index >>> SEGMENT_SHIFT);
+        int last = (int)((count - 1) >>> SEGMENT_SHIFT);
+        Object seg[] = segments[first];
+        int off = (int)(index & SEGMENT_MASK);
+        Object old = seg[off];
+
+        int end = (first == last)? (int)((count - 1) & SEGMENT_MASK) : SEGMENT_MASK;
+        System.arraycopy(seg, off + 1, seg, off, end - off);
+        for(int s = first + 1; s <= last; s++)
+        {
+            Object next[] = segments[s];
+            segments[s - 1][SEGMENT_MASK] = next[0];
+            int used = (s == last)? (int)((count - 1) & SEGMENT_MASK) : SEGMENT_MASK;
+            System.arraycopy(next, 1, next, 0, used);
+        }
+        count--;
+        segments[last][(int)(count & SEGMENT_MASK)] = null;
+
+        this.releaseSegments();
+        this.modCount++;
+        return (E) old;
+    }
+
+    /**
+     * Reemplaza el objeto en la posición index por element. Ver set(long, E).
+     * @param index índice de la casilla a acceder.
+     * @param element el objeto que será ubicado en la posición index.
+     * @return el objeto originalmente contenido en la posición index.
+     * @throws IndexOutOfBoundsException si index < 0 o index >= longSize().
+     */
+    @Override
+    public E set(int index, E element)
+    {
+        return this.set((long) index, element);
+    }
+
+    /**
+     * Reemplaza el objeto en la posición index por element, y retorna el
+     * objeto originalmente contenido en esa posición.
+     * @param index índice de la casilla a acceder.
+     * @param element el objeto que será ubicado en la posición index.
+     * @return el objeto originalmente contenido en la posición index.
+     * @throws IndexOutOfBoundsException si index < 0 o index >= longSize().
+     * @throws NullPointerException si element es null.
+     */
+    public E set(long index, E element)
+    {
+        if (index < 0 || index >= count)
+        {
+            throw new IndexOutOfBoundsException("set(): índice fuera de rango...");
+        }
+        if(element == null) throw new NullPointerException("set(): parámetro null");
+
+        Object seg[] = segments[(int)(index >>> SEGMENT_SHIFT)];
+        int i = (int)(index & SEGMENT_MASK);
+        Object old = seg[i];
+        seg[i] = element;
+        return (E) old;
+    }
+
+    /**
+     * Retorna el tamaño de la lista como lo pide la interface List: si la
+     * lista contiene más de Integer.MAX_VALUE elementos, retorna
+     * Integer.MAX_VALUE (usar longSize() para obtener el tamaño real).
+     * @return la cantidad de elementos de la lista, acotada a un int.
+     */
+    @Override
+    public int size()
+    {
+        return (int) Math.min(count, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder buff = new StringBuilder();
+        buff.append('{');
+        Iterator<E> it = this.iterator();
+        while(it.hasNext())
+        {
+            buff.append(it.next());
+            if(it.hasNext()) buff.append(", ");
+        }
+        buff.append('}');
+        return buff.toString();
+    }
+
+    /*
+     * Agrega un segmento vacío al final. Si el directorio está lleno se lo
+     * duplica, copiando sólo las referencias a los segmentos.
+     */
+    private void addSegment()
+    {
+        if(segment_count == segments.length)
+        {
+            segments = Arrays.copyOf(segments, segments.length * 2);
+        }
+        segments[segment_count++] = new Object[SEGMENT_SIZE];
+    }
+
+    /*
+     * Libera los segmentos vacíos del final, conservando uno de reserva.
+     */
+    private void releaseSegments()
+    {
+        int needed = (int)((count + SEGMENT_MASK) >>> SEGMENT_SHIFT);
+        while(segment_count > needed + 1 && segment_count > 1)
+        {
+            segments[--segment_count] = null;
+        }
+    }
+
+    /*
+     * Iterador fail-fast que recorre directamente los segmentos.
+     */
+    private class Itr implements Iterator<E>
+    {
+        private long cursor = 0;
+        private long last_index = -1;
+        private int expected_modCount = TSBBigArrayList.this.modCount;
+
+        @Override
+        public boolean hasNext()
+        {
+            return cursor < TSBBigArrayList.this.count;
+        }
+
+        @Override
+        public E next()
+        {
+            if(TSBBigArrayList.this.modCount != expected_modCount)
+            {
+                throw new ConcurrentModificationException("next(): modificación inesperada de la lista...");
+            }
+            long i = cursor;
+            if(i >= TSBBigArrayList.this.count)
+            {
+                throw new NoSuchElementException("next(): no existe el elemento pedido...");
+            }
+            cursor = i + 1;
+            last_index = i;
+            return (E) segments[(int)(i >>> SEGMENT_SHIFT)][(int)(i & SEGMENT_MASK)];
+        }
+
+        @Override
+        public void remove()
+        {
+            if(last_index < 0)
+            {
+                throw new IllegalStateException("remove(): debe invocar a next() antes de remove()...");
+            }
+            if(TSBBigArrayList.this.modCount != expected_modCount)
+            {
+                throw new ConcurrentModificationException("remove(): modificación inesperada de la lista...");
+            }
+            TSBBigArrayList.this.remove(last_index);
+            cursor = last_index;
+            last_index = -1;
+            expected_modCount = TSBBigArrayList.this.modCount;
+        }
+    }
+}
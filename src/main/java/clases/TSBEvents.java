@@ -0,0 +1,108 @@
+package clases;
+
+import java.nio.file.Path;
+
+/**
+ * Eventos de Java Flight Recorder de las tablas y de sus procesos de carga y
+ * grabación: rehash (de TSB_OAHashtable y TSBHashtable), grabación y lectura
+ * de snapshots (TSBSnapshot), y cada paso de la carga de documentos
+ * (TSBWordIngester, TSBParallelIngester y las etapas de
+ * TSBIngestionPipeline). Cada evento registra su duración y los datos de la
+ * operación, de forma que en una grabación de JFR pueden verse junto con las
+ * pausas del recolector de basura y los picos de latencia. Por ejemplo:
+ *
+ *     java -XX:StartFlightRecording=filename=tsb.jfr,settings=profile ...
+ *     jfr print --categories TSB tsb.jfr
+ *
+ * Las clases del proyecto no dependen de jdk.jfr: usan los métodos de esta
+ * clase, que reciben y retornan el evento como Object, y esta clase tampoco
+ * lo referencia: los eventos están en TSBJfrEvents (una implementación de
+ * Recorder), que sólo se carga, por reflexión, si la JVM incluye JFR. Si no lo incluye (versiones de
+ * Java 8 anteriores a la 8u272, o una imagen sin el módulo jdk.jfr), los
+ * métodos begin*() retornan null y end*() no hace nada. Con JFR disponible
+ * pero sin grabar, crear y descartar un evento cuesta muy poco, y estos
+ * eventos sólo se emiten en operaciones largas (un rehash, un archivo, un
+ * bloque de texto), nunca en cada put() o get().
+ *
+ * @version Octubre de 2026.
+ */
+final class TSBEvents
+{
+    /*
+     * Lo que implementa TSBJfrEvents: crear (begin*()) y completar (end*())
+     * cada tipo de evento.
+     */
+    interface Recorder
+    {
+        Object beginRehash();
+        void endRehash(Object event, Object table, int old_capacity, int new_capacity, int moved);
+        Object beginSnapshot(boolean write);
+        void endSnapshot(Object event, Path file, int entries, long bytes, boolean compressed, long capture_nanos);
+        Object beginIngestion();
+        void endIngestion(Object event, String stage, Path file, long bytes, long words);
+    }
+
+    // los eventos de JFR, o null si la JVM no incluye JFR...
+    private static final Recorder RECORDER = recorder();
+
+    // true si la JVM incluye la API de JFR...
+    static final boolean AVAILABLE = RECORDER != null;
+
+    private TSBEvents()
+    {
+    }
+
+    //************************ Rehash.
+
+    static Object beginRehash()
+    {
+        return (RECORDER != null) ? RECORDER.beginRehash() : null;
+    }
+
+    static void endRehash(Object event, Object table, int old_capacity, int new_capacity, int moved)
+    {
+        if(event != null) RECORDER.endRehash(event, table, old_capacity, new_capacity, moved);
+    }
+
+    //************************ Snapshots.
+
+    static Object beginSnapshot(boolean write)
+    {
+        return (RECORDER != null) ? RECORDER.beginSnapshot(write) : null;
+    }
+
+    static void endSnapshot(Object event, Path file, int entries, long bytes, boolean compressed, long capture_nanos)
+    {
+        if(event != null) RECORDER.endSnapshot(event, file, entries, bytes, compressed, capture_nanos);
+    }
+
+    //************************ Carga de documentos.
+
+    static Object beginIngestion()
+    {
+        return (RECORDER != null) ? RECORDER.beginIngestion() : null;
+    }
+
+    static void endIngestion(Object event, String stage, Path file, long bytes, long words)
+    {
+        if(event != null) RECORDER.endIngestion(event, stage, file, bytes, words);
+    }
+
+    /*
+     * Carga TSBJfrEvents si la JVM incluye JFR (y si la clase está: falta si
+     * el proyecto se compiló sin src/main/jfr). Sólo se la nombra por
+     * reflexión, para que ninguna otra clase dependa de jdk.jfr.
+     */
+    private static Recorder recorder()
+    {
+        try
+        {
+            Class.forName("jdk.jfr.Event");
+            return (Recorder) Class.forName("clases.TSBJfrEvents").getDeclaredConstructor().newInstance();
+        }
+        catch(ReflectiveOperationException | LinkageError | ClassCastException e)
+        {
+            return null;
+        }
+    }
+}
@@ -3,6 +3,7 @@ package clases;
 import java.io.Serializable;
 import java.util.AbstractSet;
 import java.util.AbstractCollection;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.ConcurrentModificationException;
 import java.util.Iterator;
@@ -85,6 +86,13 @@ public class TSBHashtable<K,V> implements Map<K,V>, Cloneable, Serializable
     // conteo de operaciones de cambio de tamaño (fail-fast iterator).
     protected transient int modCount;
     
+    // cantidad de rehash y tiempo acumulado en ellos (ver stats())...
+    private transient int rehashes;
+    private transient long rehash_nanos;
+    
+    // contadores de operaciones (null si la tabla no está instrumentada)...
+    private transient TSBTableMetrics metrics;
+    
     
     //************************ Constructores.
 
@@ -215,6 +223,11 @@ public class TSBHashtable<K,V> implements Map<K,V>, Cloneable, Serializable
        TSBArrayList<Map.Entry<K, V>> bucket = this.table[ib];
             
        Map.Entry<K, V> x = this.search_for_entry((K)key, bucket);
+       if(this.metrics != null) 
+       {
+           if(x != null) this.metrics.hit(); 
+           else this.metrics.miss();
+       }
        return (x != null)? x.getValue() : null;
     }
 
@@ -244,6 +257,7 @@ public class TSBHashtable<K,V> implements Map<K,V>, Cloneable, Serializable
        {
            old = x.getValue();
            x.setValue(value);
+           if(this.metrics != null) this.metrics.update();
        }
        else
        {
@@ -255,6 +269,7 @@ public class TSBHashtable<K,V> implements Map<K,V>, Cloneable, Serializable
            bucket.add(entry);
            this.count++;
            this.modCount++;
+           if(this.metrics != null) this.metrics.insert();
        }
        
        return old;
@@ -283,6 +298,7 @@ public class TSBHashtable<K,V> implements Map<K,V>, Cloneable, Serializable
            old = bucket.remove(ik).getValue();
            this.count--;
            this.modCount++;
+           if(this.metrics != null) this.metrics.remove();
        }
        
        return old;        
@@ -531,6 +547,158 @@ public class TSBHashtable<K,V> implements Map<K,V>, Cloneable, Serializable
         return false;
     }
     
+    /**
+     * Copia en los arreglos keys y values las claves y los valores de la 
+     * tabla (el par i-ésimo queda en keys[i] y values[i]), y retorna la 
+     * cantidad de pares copiados. Es una copia de referencias que permite 
+     * capturar rápidamente el estado de la tabla y procesarlo (grabarlo, por
+     * ejemplo) en otro hilo. No debe ejecutarse al mismo tiempo que una 
+     * modificación de la tabla.
+     * @param keys el arreglo en el que se copian las claves.
+     * @param values el arreglo en el que se copian los valores.
+     * @return la cantidad de pares copiados (igual a size()).
+     * @throws IndexOutOfBoundsException si los arreglos tienen menos de size()
+     *         casillas.
+     */
+    public int copyTo(Object keys[], Object values[])
+    {
+        if(keys.length < this.count || values.length < this.count)
+        {
+            throw new IndexOutOfBoundsException("copyTo(): arreglos demasiado chicos...");
+        }
+        
+        int n = 0;
+        for(TSBArrayList<Map.Entry<K, V>> bucket : this.table)
+        {
+            for(int i = 0; i < bucket.size(); i++)
+            {
+                Map.Entry<K, V> entry = bucket.get(i);
+                keys[n] = entry.getKey();
+                values[n] = entry.getValue();
+                n++;
+            }
+        }
+        return n;
+    }
+    
+    /**
+     * Retorna el estado interno de la tabla: capacidad, pares, carga, el 
+     * histograma de los tamaños de las listas de desborde, el costo promedio
+     * de las búsquedas exitosas y fallidas (en pares comparados), la lista más
+     * larga, y la cantidad y el tiempo acumulado de los rehash. Su costo es
+     * proporcional a la capacidad de la tabla.
+     * @return las estadísticas de la tabla.
+     */
+    public TSBTableStats stats()
+    {
+        long histogram[] = new long[16];
+        long hit_total = 0;
+        int longest = 0;
+        for(int i = 0; i < this.table.length; i++)
+        {
+            int len = this.table[i].size();
+            if(len >= histogram.length) 
+            {
+                histogram = Arrays.copyOf(histogram, Math.max(len + 1, 2 * histogram.length));
+            }
+            histogram[len]++;
+            
+            // encontrar el par k-ésimo de la lista cuesta k comparaciones...
+            hit_total += (long) len * (len + 1) / 2;
+            longest = Math.max(longest, len);
+        }
+        
+        double hit = (this.count == 0)? 0 : (double) hit_total / this.count;
+        double miss = (double) this.count / this.table.length;
+        return new TSBTableStats(false, this.table.length, this.count, 0, this.load_factor, histogram,
+                                 hit, miss, longest, this.rehashes, this.rehash_nanos);
+    }
+    
+    /**
+     * Retorna una estimación de la memoria (en bytes de heap) que ocupa la
+     * estructura de la tabla: el objeto tabla, el arreglo de listas, cada
+     * lista de desborde con su arreglo interno y los objetos Entry, sin contar
+     * las claves ni los valores, suponiendo referencias comprimidas (ver 
+     * TSBMemoryModel).
+     * @return la memoria ocupada por la tabla, en bytes.
+     */
+    public long memoryFootprint()
+    {
+        return this.memoryFootprint(TSBMemoryModel.COMPRESSED_OOPS, false);
+    }
+    
+    /**
+     * Retorna una estimación de la memoria (en bytes de heap) que ocupa la
+     * tabla según el modelo de memoria indicado, incluyendo opcionalmente las
+     * claves y los valores (ver TSBMemoryModel.sizeOf()).
+     * @param model el modelo de memoria de la JVM.
+     * @param contents true para sumar también las claves y los valores.
+     * @return la memoria ocupada por la tabla, en bytes.
+     * @throws NullPointerException si model es null.
+     */
+    public long memoryFootprint(TSBMemoryModel model, boolean contents)
+    {
+        long list = model.shallow(TSBArrayList.class);
+        long entry = model.shallow(Entry.class);
+        long bytes = model.shallow(this.getClass()) + model.references(this.table.length);
+        for(int i = 0; i < this.table.length; i++)
+        {
+            TSBArrayList<Map.Entry<K, V>> bucket = this.table[i];
+            bytes += list + model.references(bucket.capacity()) + bucket.size() * entry;
+            if(contents)
+            {
+                for(int j = 0; j < bucket.size(); j++)
+                {
+                    Map.Entry<K, V> e = bucket.get(j);
+                    bytes += model.sizeOf(e.getKey()) + model.sizeOf(e.getValue());
+                }
+            }
+        }
+        return bytes;
+    }
+    
+    /**
+     * Activa los contadores de operaciones de la tabla y los publica como un
+     * MBean con el nombre indicado (ver TSBTableMetrics). Mientras la tabla no
+     * esté instrumentada, sus operaciones no cuentan nada.
+     * @param name el nombre de la tabla en JMX.
+     * @return los contadores de la tabla.
+     * @throws NullPointerException si name es null.
+     * @throws IllegalStateException si la tabla ya está instrumentada o si ya
+     *         hay un MBean registrado con ese nombre.
+     */
+    public TSBTableMetrics instrument(String name)
+    {
+        if(this.metrics != null) 
+        {
+            throw new IllegalStateException("instrument(): la tabla ya está instrumentada...");
+        }
+        TSBTableMetrics m = new TSBTableMetrics(name, this);
+        m.register();
+        this.metrics = m;
+        return m;
+    }
+    
+    /**
+     * Desactiva los contadores de operaciones y quita el MBean de la tabla. No
+     * hace nada si la tabla no está instrumentada.
+     */
+    public void uninstrument()
+    {
+        TSBTableMetrics m = this.metrics;
+        this.metrics = null;
+        if(m != null) m.unregister();
+    }
+    
+    /**
+     * Retorna los contadores de operaciones de la tabla.
+     * @return los contadores, o null si la tabla no está instrumentada.
+     */
+    public TSBTableMetrics getMetrics()
+    {
+        return this.metrics;
+    }
+    
     /**
      * Incrementa el tamaño de la tabla y reorganiza su contenido. Se invoca 
      * automaticamente cuando se detecta que la cantidad promedio de nodos por 
@@ -541,6 +709,8 @@ public class TSBHashtable<K,V> implements Map<K,V>, Cloneable, Serializable
      */
     protected void rehash()
     {
+        long t0 = System.nanoTime();
+        Object event = TSBEvents.beginRehash();
         int old_length = this.table.length;
         
         // nuevo tamaño: doble del anterior, más uno para llevarlo a impar...
@@ -581,6 +751,11 @@ public class TSBHashtable<K,V> implements Map<K,V>, Cloneable, Serializable
        
         // cambiar la referencia table para que apunte a temp...
         this.table = temp;
+        
+        this.rehashes++;
+        this.rehash_nanos += System.nanoTime() - t0;
+        if(this.metrics != null) this.metrics.rehash();
+        TSBEvents.endRehash(event, this, old_length, new_length, this.count);
     }
     
 
@@ -636,17 +811,13 @@ public class TSBHashtable<K,V> implements Map<K,V>, Cloneable, Serializable
     /*
      * Busca en la lista bucket un objeto Entry cuya clave coincida con key.
      * Si lo encuentra, retorna ese objeto Entry. Si no lo encuentra, retorna 
-     * null.
+     * null. Recorre la lista por posición (y no con un iterador) para no 
+     * crear objetos en get(), put() y remove() (ver TSBAllocationCheck).
      */
     private Map.Entry<K, V> search_for_entry(K key, TSBArrayList<Map.Entry<K, V>> bucket)
     {
-        Iterator<Map.Entry<K, V>> it = bucket.iterator();
-        while(it.hasNext())
-        {
-            Map.Entry<K, V> entry = it.next();
-            if(key.equals(entry.getKey())) return entry;
-        }
-        return null;
+        int ik = this.search_for_index(key, bucket);
+        return (ik == -1) ? null : bucket.get(ik);
     }
     
     /*
@@ -655,10 +826,9 @@ public class TSBHashtable<K,V> implements Map<K,V>, Cloneable, Serializable
      */
     private int search_for_index(K key, TSBArrayList<Map.Entry<K, V>> bucket)
     {
-        Iterator<Map.Entry<K, V>> it = bucket.iterator();
-        for(int i=0; it.hasNext(); i++)
+        for(int i = 0; i < bucket.size(); i++)
         {
-            Map.Entry<K, V> entry = it.next();
+            Map.Entry<K, V> entry = bucket.get(i);
             if(key.equals(entry.getKey())) return i;
         }
         return -1;
@@ -672,10 +842,16 @@ public class TSBHashtable<K,V> implements Map<K,V>, Cloneable, Serializable
      * tabla hash: son instancias de esta clase las que realmente se guardan en 
      * en cada una de las listas del arreglo table que se usa como soporte de 
      * la tabla. Lanzará una IllegalArgumentException si alguno de los dos 
-     * parámetros es null.
+     * parámetros es null. Es serializable (y static, para no arrastrar una 
+     * referencia a la tabla) porque las listas de la tabla se serializan junto 
+     * con ella.
      */
-    private class Entry<K, V> implements Map.Entry<K, V>
+    private static class Entry<K, V> implements Map.Entry<K, V>, Serializable
     {
+        // el valor calculado por serialver para la primera versión serializable
+        // de la clase, para seguir leyendo las tablas ya grabadas...
+        private static final long serialVersionUID = 5013207057461207455L;
+
         private K key;
         private V value;
         
@@ -809,6 +985,7 @@ public class TSBHashtable<K,V> implements Map<K,V>, Cloneable, Serializable
              */
             public KeySetIterator()
             {
+                if(TSBHashtable.this.metrics != null) TSBHashtable.this.metrics.iterator();
                 current_bucket = 0; 
                 last_bucket = 0;
                 current_entry = -1;
@@ -1032,6 +1209,7 @@ public class TSBHashtable<K,V> implements Map<K,V>, Cloneable, Serializable
              */
             public EntrySetIterator()
             {
+                if(TSBHashtable.this.metrics != null) TSBHashtable.this.metrics.iterator();
                 current_bucket = 0; 
                 last_bucket = 0;
                 current_entry = -1;
@@ -1216,6 +1394,7 @@ public class TSBHashtable<K,V> implements Map<K,V>, Cloneable, Serializable
              */
             public ValueCollectionIterator()
             {
+                if(TSBHashtable.this.metrics != null) TSBHashtable.this.metrics.iterator();
                 current_bucket = 0; 
                 last_bucket = 0;
                 current_entry = -1;
@@ -0,0 +1,671 @@
+package clases;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Carga de documentos organizada como una línea de producción de tres etapas
+ * que trabajan al mismo tiempo, cada una con sus propios hilos:
+ *
+ * 1. Lectores: leen los archivos a través de FileChannel sobre bloques de
+ *    bytes tomados de un pool fijo, y cortan cada bloque en el último
+ *    separador ASCII (los bytes que siguen pasan al bloque siguiente).
+ * 2. Separadores: decodifican cada bloque, lo separan en palabras y las
+ *    agrupan en lotes, uno por cada contador. Cada palabra va siempre al
+ *    mismo contador (según su hash).
+ * 3. Contadores: aplican cada lote a su propia tabla. Como las palabras
+ *    están particionadas por hash, las tablas de los contadores son
+ *    disjuntas y al final se suman a la tabla destino sin conflictos.
+ *
+ * Entre las etapas hay colas acotadas: si una etapa es más lenta, las
+ * anteriores se bloquean al llenarse su cola (contrapresión) y la memoria
+ * usada queda acotada. Agrupar las palabras en lotes amortiza el costo de
+ * pasar cada palabra por una cola. Mientras la carga está en curso, stats()
+ * informa desde cualquier hilo la cantidad procesada, el tiempo ocupado y el
+ * rendimiento de cada etapa, y la ocupación de cada cola: la etapa con mayor
+ * tiempo ocupado por hilo (y con su cola de entrada llena) es el cuello de
+ * botella.
+ *
+ * Igual que TSBParallelIngester, el corte de bloques requiere un juego de
+ * caracteres en el que los bytes ASCII sean siempre caracteres ASCII.
+ *
+ * @version Octubre de 2026.
+ */
+public class TSBIngestionPipeline
+{
+    // espera máxima de cada operación bloqueante antes de revisar si otra
+    // etapa falló (para no quedar bloqueado para siempre)...
+    private static final long POLL_MILLIS = 100;
+
+    private final int readers;
+    private final int tokenizers;
+    private final int counters;
+    private final Charset charset;
+    private final int chunk_size;
+    private final int batch_size;
+    private final int queue_capacity;
+
+    // estadísticas de cada etapa (válidas también durante la carga)...
+    private final Stage read_stage = new Stage("lectura");
+    private final Stage token_stage = new Stage("separación");
+    private final Stage count_stage = new Stage("conteo");
+
+    // colas de la carga en curso (para informar su ocupación)...
+    private volatile BlockingQueue<Chunk> chunk_queue;
+    private volatile List<BlockingQueue<Batch>> batch_queues;
+
+    // primer error producido en cualquier etapa...
+    private volatile Throwable failure;
+
+    /**
+     * Crea una línea de carga con un lector, un contador y tantos separadores
+     * como procesadores disponibles queden, leyendo UTF-8 en bloques de 256 KB
+     * y lotes de 4096 palabras, con colas de 16 elementos.
+     */
+    public TSBIngestionPipeline()
+    {
+        this(1, Math.max(1, Runtime.getRuntime().availableProcessors() - 2), 1,
+             StandardCharsets.UTF_8, 1 << 18, 4096, 16);
+    }
+
+    /**
+     * Crea una línea de carga con la configuración indicada. Los valores
+     * menores a 1 se ajustan a 1, y chunkSize a un mínimo de 4 KB.
+     * @param readers la cantidad de hilos lectores.
+     * @param tokenizers la cantidad de hilos separadores de palabras.
+     * @param counters la cantidad de hilos contadores (y de tablas parciales).
+     * @param charset el juego de caracteres de los archivos.
+     * @param chunkSize el tamaño en bytes de los bloques de lectura.
+     * @param batchSize la cantidad de palabras por lote.
+     * @param queueCapacity la capacidad de cada cola entre etapas.
+     * @throws NullPointerException si charset es null.
+     * @throws IllegalArgumentException si en charset un byte ASCII puede ser
+     *         parte de otro caracter (por ejemplo, UTF-16).
+     */
+    public TSBIngestionPipeline(int readers, int tokenizers, int counters, Charset charset,
+                                int chunkSize, int batchSize, int queueCapacity)
+    {
+        if(charset == null) throw new NullPointerException("TSBIngestionPipeline(): parámetro null");
+        if(!TSBParallelIngester.isAsciiCompatible(charset))
+        {
+            throw new IllegalArgumentException("TSBIngestionPipeline(): juego de caracteres no soportado...");
+        }
+        this.readers = Math.max(readers, 1);
+        this.tokenizers = Math.max(tokenizers, 1);
+        this.counters = Math.max(counters, 1);
+        this.charset = charset;
+        this.chunk_size = Math.max(chunkSize, 1 << 12);
+        this.batch_size = Math.max(batchSize, 1);
+        this.queue_capacity = Math.max(queueCapacity, 1);
+    }
+
+    /**
+     * Procesa los archivos indicados y suma a la tabla target las frecuencias
+     * de las palabras que contienen. El método retorna cuando las tres etapas
+     * terminaron y las tablas de los contadores fueron sumadas a target. Una
+     * misma instancia procesa una carga por vez.
+     * @param target la tabla en la que se acumulan las frecuencias.
+     * @param files los archivos a procesar.
+     * @return las estadísticas del proceso completo.
+     * @throws IOException si alguno de los archivos no puede leerse.
+     */
+    public synchronized TSBIngestionStats ingest(TSB_OAHashtable<String, Integer> target, Path... files) throws IOException
+    {
+        long t0 = System.nanoTime();
+        read_stage.reset();
+        token_stage.reset();
+        count_stage.reset();
+        failure = null;
+
+        // pool fijo de bloques: un lector sin bloques libres se bloquea...
+        BlockingQueue<Chunk> free_chunks = new ArrayBlockingQueue<>(queue_capacity + readers + tokenizers);
+        while(free_chunks.remainingCapacity() > 0) free_chunks.add(new Chunk(chunk_size));
+
+        chunk_queue = new ArrayBlockingQueue<>(queue_capacity + tokenizers);
+        List<BlockingQueue<Batch>> queues = new ArrayList<>();
+        for(int i = 0; i < counters; i++) queues.add(new ArrayBlockingQueue<>(queue_capacity + tokenizers));
+        batch_queues = queues;
+        ConcurrentLinkedQueue<Batch> free_batches = new ConcurrentLinkedQueue<>();
+
+        ConcurrentLinkedQueue<Path> pending = new ConcurrentLinkedQueue<>(Arrays.asList(files));
+        AtomicInteger active_readers = new AtomicInteger(readers);
+        AtomicInteger active_tokenizers = new AtomicInteger(tokenizers);
+
+        List<TSB_OAHashtable<String, Integer>> tables = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        for(int i = 0; i < readers; i++)
+        {
+            threads.add(new Thread(() -> reader(pending, free_chunks, active_readers), "tsb-lector-" + i));
+        }
+        for(int i = 0; i < tokenizers; i++)
+        {
+            threads.add(new Thread(() -> tokenizer(free_chunks, free_batches, active_tokenizers), "tsb-separador-" + i));
+        }
+        for(int i = 0; i < counters; i++)
+        {
+            TSB_OAHashtable<String, Integer> table = new TSB_OAHashtable<>();
+            BlockingQueue<Batch> queue = queues.get(i);
+            tables.add(table);
+            threads.add(new Thread(() -> counter(queue, free_batches, table), "tsb-contador-" + i));
+        }
+
+        for(Thread t : threads) t.start();
+        try
+        {
+            for(Thread t : threads) t.join();
+        }
+        catch(InterruptedException e)
+        {
+            fail(e);
+            Thread.currentThread().interrupt();
+        }
+
+        Throwable e = failure;
+        if(e instanceof IOException) throw (IOException) e;
+        if(e instanceof InterruptedException) throw new IOException("ingest(): carga interrumpida...", e);
+        if(e != null) throw new IllegalStateException("ingest(): falla en la línea de carga...", e);
+
+        for(TSB_OAHashtable<String, Integer> table : tables) TSBParallelIngester.merge(target, table);
+
+        return new TSBIngestionStats(files.length, read_stage.bytes.get(), count_stage.words.get(),
+                                     System.nanoTime() - t0);
+    }
+
+    /**
+     * Retorna las estadísticas de cada etapa (lectura, separación y conteo) de
+     * la carga en curso o de la última realizada. Puede invocarse desde
+     * cualquier hilo mientras ingest() está en ejecución.
+     * @return una lista con las estadísticas de las tres etapas.
+     */
+    public List<StageStats> stats()
+    {
+        BlockingQueue<Chunk> cq = chunk_queue;
+        List<BlockingQueue<Batch>> bq = batch_queues;
+        int chunk_depth = (cq == null) ? 0 : cq.size();
+        int batch_depth = 0;
+        if(bq != null) for(BlockingQueue<Batch> q : bq) batch_depth += q.size();
+
+        List<StageStats> list = new ArrayList<>();
+        list.add(read_stage.snapshot(readers, 0, 0));
+        list.add(token_stage.snapshot(tokenizers, chunk_depth, queue_capacity + tokenizers));
+        list.add(count_stage.snapshot(counters, batch_depth, counters * (queue_capacity + tokenizers)));
+        return list;
+    }
+
+    //************************ Etapas.
+
+    /*
+     * Etapa 1: toma archivos pendientes y los lee en bloques, cortando cada
+     * bloque después de su último separador ASCII.
+     */
+    private void reader(ConcurrentLinkedQueue<Path> pending, BlockingQueue<Chunk> free_chunks, AtomicInteger active)
+    {
+        try
+        {
+            Path file;
+            while(failure == null && (file = pending.poll()) != null)
+            {
+                try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+                {
+                    Chunk chunk = take(free_chunks);
+                    boolean eof = false;
+                    while(!eof)
+                    {
+                        long t0 = System.nanoTime();
+                        Object event = TSBEvents.beginIngestion();
+                        ByteBuffer buf = chunk.bytes;
+                        int n = channel.read(buf);
+                        eof = (n < 0);
+                        if(n > 0) read_stage.bytes.addAndGet(n);
+
+                        // si no es el final, cortar en el último separador...
+                        int cut = eof ? buf.position() : lastSeparator(buf);
+                        if(cut < 0) cut = buf.position();
+                        Chunk next = null;
+                        if(!eof)
+                        {
+                            read_stage.busy(t0);
+                            next = take(free_chunks);
+                            t0 = System.nanoTime();
+                            buf.flip();
+                            buf.position(cut);
+                            next.bytes.put(buf);
+                            buf.position(0);
+                            buf.limit(cut);
+                        }
+                        else buf.flip();
+
+                        read_stage.items.incrementAndGet();
+                        read_stage.busy(t0);
+                        TSBEvents.endIngestion(event, "lectura", file, Math.max(n, 0), 0);
+                        put(chunk_queue, chunk);
+                        chunk = next;
+                    }
+                }
+            }
+        }
+        catch(Throwable e)
+        {
+            fail(e);
+        }
+        finally
+        {
+            // el último lector en terminar avisa a los separadores...
+            if(active.decrementAndGet() == 0)
+            {
+                for(int i = 0; i < tokenizers; i++) offerEnd(chunk_queue, Chunk.END);
+            }
+        }
+    }
+
+    /*
+     * Etapa 2: decodifica cada bloque, lo separa en palabras y las agrupa en
+     * lotes según el contador que les corresponde.
+     */
+    private void tokenizer(BlockingQueue<Chunk> free_chunks, ConcurrentLinkedQueue<Batch> free_batches, AtomicInteger active)
+    {
+        Batch batches[] = new Batch[counters];
+        try
+        {
+            CharsetDecoder decoder = charset.newDecoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            CharBuffer chars = CharBuffer.allocate(chunk_size);
+            for(int i = 0; i < counters; i++) batches[i] = newBatch(free_batches);
+
+            TSBWordTokenizer tok = new TSBWordTokenizer((buf, off, len) ->
+            {
+                int hc = 0;
+                for(int i = off, end = off + len; i < end; i++) hc = 31 * hc + buf[i];
+                int p = (hc & 0x7fffffff) % counters;
+                Batch b = batches[p];
+                b.add(buf, off, len);
+                if(b.size == batch_size)
+                {
+                    put(batch_queues.get(p), b);
+                    batches[p] = newBatch(free_batches);
+                }
+            });
+
+            while(true)
+            {
+                Chunk chunk = take(chunk_queue);
+                if(chunk == Chunk.END) break;
+
+                long t0 = System.nanoTime();
+                Object event = TSBEvents.beginIngestion();
+                long w0 = tok.words();
+                int bytes = chunk.bytes.remaining();
+                decoder.reset();
+                chars.clear();
+                decoder.decode(chunk.bytes, chars, true);
+                decoder.flush(chars);
+                chunk.bytes.clear();
+                free_chunks.add(chunk);
+
+                chars.flip();
+                tok.feed(chars);
+                tok.finish();
+
+                token_stage.items.incrementAndGet();
+                token_stage.words.addAndGet(tok.words() - w0);
+                token_stage.busy(t0);
+                TSBEvents.endIngestion(event, "separación", null, bytes, tok.words() - w0);
+            }
+
+            for(int i = 0; i < counters; i++)
+            {
+                if(batches[i].size > 0) put(batch_queues.get(i), batches[i]);
+            }
+        }
+        catch(Throwable e)
+        {
+            fail(e);
+        }
+        finally
+        {
+            // el último separador en terminar avisa a los contadores...
+            if(active.decrementAndGet() == 0)
+            {
+                for(BlockingQueue<Batch> q : batch_queues) offerEnd(q, Batch.END);
+            }
+        }
+    }
+
+    /*
+     * Etapa 3: aplica cada lote de palabras a la tabla del contador.
+     */
+    private void counter(BlockingQueue<Batch> queue, ConcurrentLinkedQueue<Batch> free_batches,
+                         TSB_OAHashtable<String, Integer> table)
+    {
+        try
+        {
+            while(true)
+            {
+                Batch b = take(queue);
+                if(b == Batch.END) break;
+
+                long t0 = System.nanoTime();
+                Object event = TSBEvents.beginIngestion();
+                int words = b.size;
+                int start = 0;
+                for(int i = 0; i < b.size; i++)
+                {
+                    int end = b.ends[i];
+                    table.increment(b.chars, start, end - start, 1);
+                    start = end;
+                }
+                count_stage.items.incrementAndGet();
+                count_stage.words.addAndGet(b.size);
+                b.size = 0;
+                b.length = 0;
+                free_batches.add(b);
+                count_stage.busy(t0);
+                TSBEvents.endIngestion(event, "conteo", null, 0, words);
+            }
+        }
+        catch(Throwable e)
+        {
+            fail(e);
+        }
+    }
+
+    //************************ Métodos privados.
+
+    private Batch newBatch(ConcurrentLinkedQueue<Batch> free_batches)
+    {
+        Batch b = free_batches.poll();
+        return (b != null) ? b : new Batch(batch_size);
+    }
+
+    /*
+     * Retorna la posición siguiente al último separador ASCII entre los bytes
+     * leídos en buf (desde 0 hasta su posición), o -1 si no hay ninguno.
+     */
+    private static int lastSeparator(ByteBuffer buf)
+    {
+        byte a[] = buf.array();
+        int base = buf.arrayOffset();
+        for(int i = buf.position() - 1; i >= 0; i--)
+        {
+            int b = a[base + i] & 0xFF;
+            if(b < 128 && !Character.isLetterOrDigit(b)) return i + 1;
+        }
+        return -1;
+    }
+
+    private void fail(Throwable e)
+    {
+        if(failure == null)
+        {
+            synchronized(this.read_stage)
+            {
+                if(failure == null) failure = e;
+            }
+        }
+    }
+
+    /*
+     * Operaciones bloqueantes que abandonan si otra etapa falló.
+     */
+    private <T> T take(BlockingQueue<T> q) throws InterruptedException
+    {
+        while(true)
+        {
+            T x = q.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            if(x != null) return x;
+            if(failure != null) throw new IllegalStateException("take(): carga abortada...");
+        }
+    }
+
+    private <T> void put(BlockingQueue<T> q, T x)
+    {
+        try
+        {
+            while(!q.offer(x, POLL_MILLIS, TimeUnit.MILLISECONDS))
+            {
+                if(failure != null) throw new IllegalStateException("put(): carga abortada...");
+            }
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("put(): carga interrumpida...", e);
+        }
+    }
+
+    /*
+     * Encola una marca de fin; si la carga falló y la cola está llena, la
+     * marca no hace falta (los consumidores abandonan por su cuenta).
+     */
+    private <T> void offerEnd(BlockingQueue<T> q, T end)
+    {
+        try
+        {
+            while(!q.offer(end, POLL_MILLIS, TimeUnit.MILLISECONDS))
+            {
+                if(failure != null) return;
+            }
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    //************************ Clases internas.
+
+    /*
+     * Un bloque de bytes leído de un archivo.
+     */
+    private static class Chunk
+    {
+        private static final Chunk END = new Chunk(0);
+        private final ByteBuffer bytes;
+
+        Chunk(int size)
+        {
+            bytes = ByteBuffer.allocate(size);
+        }
+    }
+
+    /*
+     * Un lote de palabras: los caracteres de todas las palabras, uno detrás
+     * de otro, y la posición en la que termina cada una.
+     */
+    private static class Batch
+    {
+        private static final Batch END = new Batch(1);
+        private char chars[];
+        private final int ends[];
+        private int length;
+        private int size;
+
+        Batch(int capacity)
+        {
+            chars = new char[capacity * 8];
+            ends = new int[capacity];
+        }
+
+        void add(char buf[], int off, int len)
+        {
+            if(length + len > chars.length)
+            {
+                chars = Arrays.copyOf(chars, Math.max(chars.length * 2, length + len));
+            }
+            System.arraycopy(buf, off, chars, length, len);
+            length += len;
+            ends[size++] = length;
+        }
+    }
+
+    /*
+     * Contadores de una etapa, actualizados por sus hilos una vez por bloque
+     * o lote (no por palabra).
+     */
+    private static class Stage
+    {
+        private final String name;
+        private final AtomicLong items = new AtomicLong();
+        private final AtomicLong bytes = new AtomicLong();
+        private final AtomicLong words = new AtomicLong();
+        private final AtomicLong busy_nanos = new AtomicLong();
+        private volatile long start_nanos = System.nanoTime();
+
+        Stage(String name)
+        {
+            this.name = name;
+        }
+
+        void reset()
+        {
+            items.set(0);
+            bytes.set(0);
+            words.set(0);
+            busy_nanos.set(0);
+            start_nanos = System.nanoTime();
+        }
+
+        void busy(long t0)
+        {
+            busy_nanos.addAndGet(System.nanoTime() - t0);
+        }
+
+        StageStats snapshot(int threads, int depth, int capacity)
+        {
+            return new StageStats(name, threads, items.get(), bytes.get(), words.get(),
+                                  busy_nanos.get(), System.nanoTime() - start_nanos, depth, capacity);
+        }
+    }
+
+    /**
+     * Estadísticas de una etapa de la línea de carga en un momento dado:
+     * cantidad de bloques o lotes procesados, bytes y palabras, tiempo
+     * ocupado (sumado entre todos sus hilos), y ocupación de su cola de
+     * entrada.
+     */
+    public static class StageStats
+    {
+        private final String name;
+        private final int threads;
+        private final long items;
+        private final long bytes;
+        private final long words;
+        private final long busy_nanos;
+        private final long elapsed_nanos;
+        private final int queue_depth;
+        private final int queue_capacity;
+
+        StageStats(String name, int threads, long items, long bytes, long words,
+                   long busy_nanos, long elapsed_nanos, int queue_depth, int queue_capacity)
+        {
+            this.name = name;
+            this.threads = threads;
+            this.items = items;
+            this.bytes = bytes;
+            this.words = words;
+            this.busy_nanos = busy_nanos;
+            this.elapsed_nanos = elapsed_nanos;
+            this.queue_depth = queue_depth;
+            this.queue_capacity = queue_capacity;
+        }
+
+        public String getName() { return name; }
+        public int getThreads() { return threads; }
+        public long getItems() { return items; }
+        public long getBytes() { return bytes; }
+        public long getWords() { return words; }
+        public long getBusyNanos() { return busy_nanos; }
+        public int getQueueDepth() { return queue_depth; }
+        public int getQueueCapacity() { return queue_capacity; }
+
+        /**
+         * Retorna la fracción del tiempo transcurrido en que los hilos de la
+         * etapa estuvieron trabajando (y no esperando en una cola). Un valor
+         * cercano a 1 indica que la etapa es el cuello de botella.
+         * @return el tiempo ocupado por hilo sobre el tiempo transcurrido.
+         */
+        public double utilization()
+        {
+            if(elapsed_nanos <= 0) return 0;
+            return (double) busy_nanos / threads / elapsed_nanos;
+        }
+
+        /**
+         * Retorna el rendimiento de la etapa en palabras (o en MB, para la
+         * etapa de lectura) por segundo de tiempo ocupado.
+         * @return el rendimiento de la etapa por segundo ocupado.
+         */
+        public double throughput()
+        {
+            if(busy_nanos <= 0) return 0;
+            double amount = (words > 0) ? words : bytes / (1024.0 * 1024.0);
+            return amount / (busy_nanos / 1e9);
+        }
+
+        @Override
+        public String toString()
+        {
+            String unit = (words > 0) ? "palabras/s" : "MB/s";
+            return String.format("%-11s hilos=%d procesados=%d %.1f %s ocupación=%.0f%% cola=%d/%d",
+                                 name, threads, items, throughput(), unit,
+                                 utilization() * 100, queue_depth, queue_capacity);
+        }
+    }
+
+    /**
+     * Procesa los archivos indicados con la línea de carga, mostrando cada
+     * medio segundo las estadísticas de cada etapa.
+     * Uso: java clases.TSBIngestionPipeline archivo...
+     * @param args los archivos a procesar.
+     * @throws Exception si alguno de los archivos no puede leerse.
+     */
+    public static void main(String args[]) throws Exception
+    {
+        Path files[] = new Path[args.length];
+        for(int i = 0; i < args.length; i++) files[i] = Paths.get(args[i]);
+
+        TSBIngestionPipeline pipeline = new TSBIngestionPipeline();
+        Thread monitor = new Thread(() ->
+        {
+            try
+            {
+                while(true)
+                {
+                    Thread.sleep(500);
+                    for(StageStats s : pipeline.stats()) System.out.println("  " + s);
+                }
+            }
+            catch(InterruptedException e)
+            {
+                // fin del monitoreo...
+            }
+        });
+        monitor.setDaemon(true);
+        monitor.start();
+
+        TSB_OAHashtable<String, Integer> table = new TSB_OAHashtable<>();
+        System.out.println(pipeline.ingest(table, files));
+        monitor.interrupt();
+        for(StageStats s : pipeline.stats()) System.out.println("  " + s);
+        System.out.println("Palabras distintas: " + table.size());
+    }
+}
@@ -0,0 +1,79 @@
+package clases;
+
+/**
+ * Resultado de un proceso de carga de documentos: cuántos archivos, bytes y
+ * palabras se procesaron, y en cuánto tiempo. A partir de esos valores se
+ * informa el rendimiento en MB/s y en palabras/s.
+ *
+ * @version Octubre de 2026.
+ */
+public class TSBIngestionStats
+{
+    private final int files;
+    private final long bytes;
+    private final long words;
+    private final long nanos;
+
+    /**
+     * Crea un resultado con los valores indicados.
+     * @param files la cantidad de archivos procesados.
+     * @param bytes la cantidad de bytes leídos.
+     * @param words la cantidad de palabras contadas.
+     * @param nanos el tiempo total del proceso, en nanosegundos.
+     */
+    public TSBIngestionStats(int files, long bytes, long words, long nanos)
+    {
+        this.files = files;
+        this.bytes = bytes;
+        this.words = words;
+        this.nanos = nanos;
+    }
+
+    public int getFiles()
+    {
+        return files;
+    }
+
+    public long getBytes()
+    {
+        return bytes;
+    }
+
+    public long getWords()
+    {
+        return words;
+    }
+
+    public long getNanos()
+    {
+        return nanos;
+    }
+
+    /**
+     * Retorna el rendimiento del proceso en megabytes (2^20 bytes) por segundo.
+     * @return la cantidad de MB procesados por segundo.
+     */
+    public double megabytesPerSecond()
+    {
+        if(nanos <= 0) return 0;
+        return (bytes / (1024.0 * 1024.0)) / (nanos / 1e9);
+    }
+
+    /**
+     * Retorna el rendimiento del proceso en palabras por segundo.
+     * @return la cantidad de palabras contadas por segundo.
+     */
+    public double wordsPerSecond()
+    {
+        if(nanos <= 0) return 0;
+        return words / (nanos / 1e9);
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%d archivos, %d bytes, %d palabras en %.3f s (%.1f MB/s, %.0f palabras/s)",
+                             files, bytes, words, nanos / 1e9,
+                             megabytesPerSecond(), wordsPerSecond());
+    }
+}
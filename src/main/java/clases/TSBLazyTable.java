@@ -0,0 +1,336 @@
+package clases;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Carga diferida de una tabla grabada con TSBSnapshot: open() lee sólo la
+ * cabecera del archivo (y su índice de particiones, si lo tiene) y retorna
+ * enseguida, mientras la tabla se carga en un hilo de fondo. Así el tiempo
+ * hasta la primera consulta casi no depende del tamaño de la tabla
+ * (requerimiento 3 del enunciado: levantar la tabla al arrancar el programa).
+ *
+ * size() informa la cantidad de pares desde el primer momento (la cabecera
+ * la contiene). Los archivos comprimidos agrupan los pares en particiones
+ * según el hash de la clave, con un índice que indica dónde empieza cada
+ * una; cada partición se carga en su propia tabla. get() sobre una clave
+ * cuya partición ya se cargó responde de inmediato; si todavía no se cargó,
+ * el mismo hilo que consulta lee esa partición desde el índice (sin esperar
+ * al hilo de fondo), o espera si el hilo de fondo la está leyendo en ese
+ * momento. En los archivos sin particiones, get() espera la carga completa.
+ *
+ * Una vez abierta la tabla es de sólo lectura; getTable() espera la carga
+ * completa y retorna una TSB_OAHashtable nueva con todos los pares, para
+ * modificarla (get() sigue consultando las particiones, que no se ven
+ * afectadas por esos cambios). Las particiones ocupan memoria mientras la
+ * TSBLazyTable siga en uso: si sólo se necesita la tabla completa, conviene
+ * descartarla luego de invocar getTable().
+ *
+ * @version Octubre de 2026.
+ */
+public class TSBLazyTable<K, V>
+{
+    // estados de cada partición...
+    private static final int PENDING = 0;
+    private static final int LOADED = 1;
+
+    private final Path file;
+    private final TSBSnapshot.Header header;
+
+    // una tabla por partición, su estado y su cerrojo de carga...
+    private final TSB_OAHashtable<K, V> parts[];
+    private final AtomicIntegerArray state;
+    private final Object locks[];
+
+    // posición y cantidad de pares de cada partición (null si el archivo no
+    // tiene índice), o el stream del que se lee la única partición...
+    private final long offsets[];
+    private final int pairs[];
+    private final DataInputStream sequential;
+
+    // el error producido en la carga, si lo hubo...
+    private volatile Throwable failure;
+
+    private TSBLazyTable(Path file, TSBSnapshot.Header h, long offsets[], int pairs[], DataInputStream sequential)
+    {
+        this.file = file;
+        this.header = h;
+        this.offsets = offsets;
+        this.pairs = pairs;
+        this.sequential = sequential;
+
+        int n = 1 << h.bits;
+        // no se puede crear un arreglo de un tipo genérico...
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        TSB_OAHashtable<K, V> tables[] = new TSB_OAHashtable[n];
+        this.parts = tables;
+        this.state = new AtomicIntegerArray(n);
+        this.locks = new Object[n];
+        for(int p = 0; p < n; p++)
+        {
+            int expected = (pairs != null) ? pairs[p] : h.count;
+            parts[p] = new TSB_OAHashtable<>((int) Math.min(Integer.MAX_VALUE, expected / 0.75 + 1));
+            locks[p] = new Object();
+        }
+    }
+
+    /**
+     * Abre el archivo indicado, lee su cabecera y comienza a cargar la tabla
+     * en un hilo de fondo.
+     * @param file un archivo grabado con TSBSnapshot.
+     * @return la tabla, que puede consultarse mientras se carga.
+     * @throws IOException si el archivo no puede leerse o no es válido.
+     */
+    public static <K, V> TSBLazyTable<K, V> open(Path file) throws IOException
+    {
+        DataInputStream in = TSBSnapshot.open(file);
+        TSBLazyTable<K, V> lazy;
+        try
+        {
+            TSBSnapshot.Header h = TSBSnapshot.readHeader(in, file);
+            if(h.codec == TSBSnapshot.DEFLATE && h.version >= 3)
+            {
+                in.close();
+                int n = 1 << h.bits;
+                long offsets[] = new long[n];
+                int pairs[] = new int[n];
+                readIndex(file, offsets, pairs);
+                lazy = new TSBLazyTable<>(file, h, offsets, pairs, null);
+            }
+            else
+            {
+                lazy = new TSBLazyTable<>(file, h, null, null, in);
+            }
+        }
+        catch(IOException | RuntimeException e)
+        {
+            in.close();
+            throw e;
+        }
+
+        TSBLazyTable<K, V> t = lazy;
+        Thread loader = new Thread(() ->
+        {
+            try
+            {
+                for(int p = 0; p < t.parts.length; p++) t.ensureLoaded(p);
+            }
+            catch(IllegalStateException e)
+            {
+                // el error queda registrado en failure y lo informan las consultas...
+            }
+        }, "tsb-carga");
+        loader.setDaemon(true);
+        loader.start();
+        return lazy;
+    }
+
+    /**
+     * Retorna la cantidad de pares de la tabla (leída de la cabecera, sin
+     * esperar la carga).
+     * @return la cantidad de pares de la tabla.
+     */
+    public int size()
+    {
+        return header.count;
+    }
+
+    /**
+     * Retorna el valor asociado a la clave key, cargando primero (o
+     * esperando que se cargue) la partición que la contiene.
+     * @param key la clave a buscar.
+     * @return el valor asociado a key, o null si la tabla no la contiene.
+     * @throws NullPointerException si key es null.
+     * @throws IllegalStateException si la carga de la tabla falló.
+     */
+    public V get(Object key)
+    {
+        if(key == null) throw new NullPointerException("get(): parámetro null");
+        int p = TSBSnapshot.partition(key, header.bits);
+        this.ensureLoaded(p);
+        return parts[p].get(key);
+    }
+
+    /**
+     * Determina si la tabla contiene la clave key, cargando primero (o
+     * esperando que se cargue) la partición que la contiene.
+     * @param key la clave a buscar.
+     * @return true si la tabla contiene a key.
+     * @throws NullPointerException si key es null.
+     * @throws IllegalStateException si la carga de la tabla falló.
+     */
+    public boolean containsKey(Object key)
+    {
+        return get(key) != null;
+    }
+
+    /**
+     * Determina si la carga de la tabla terminó (bien o con un error).
+     * @return true si ya no queda nada por cargar.
+     */
+    public boolean isLoaded()
+    {
+        if(failure != null) return true;
+        for(int p = 0; p < parts.length; p++)
+        {
+            if(state.get(p) == PENDING) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Espera a que termine la carga y retorna una TSB_OAHashtable nueva con
+     * todos los pares. La tabla retornada no se comparte con get() ni con
+     * otras invocaciones de este método: puede modificarse libremente.
+     * @return la tabla completa.
+     * @throws IOException si la carga de la tabla falló.
+     */
+    public TSB_OAHashtable<K, V> getTable() throws IOException
+    {
+        try
+        {
+            for(int p = 0; p < parts.length; p++) this.ensureLoaded(p);
+        }
+        catch(IllegalStateException e)
+        {
+            if(failure instanceof IOException) throw (IOException) failure;
+            throw e;
+        }
+
+        TSB_OAHashtable<K, V> table = new TSB_OAHashtable<>((int) Math.min(Integer.MAX_VALUE, header.count / 0.75 + 1));
+        for(TSB_OAHashtable<K, V> part : parts) table.putAll(part);
+        return table;
+    }
+
+    //************************ Métodos privados.
+
+    /*
+     * Carga la partición p si todavía no está cargada (o espera a que termine
+     * de cargarla otro hilo). La escritura de state luego de cargar la
+     * partición publica su tabla para los demás hilos.
+     */
+    private void ensureLoaded(int p)
+    {
+        if(state.get(p) == PENDING)
+        {
+            synchronized(locks[p])
+            {
+                if(state.get(p) == PENDING)
+                {
+                    try
+                    {
+                        if(failure == null) this.load(p);
+                    }
+                    catch(Throwable e)
+                    {
+                        failure = e;
+                    }
+                    finally
+                    {
+                        state.set(p, LOADED);
+                    }
+                }
+            }
+        }
+        if(failure != null) throw new IllegalStateException("ensureLoaded(): falló la carga de " + file + "...", failure);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void load(int p) throws IOException
+    {
+        TSB_OAHashtable<K, V> part = parts[p];
+        TSBSnapshot.BlockSink sink = (partition, keys, values) ->
+        {
+            for(int i = 0; i < keys.length; i++) part.put((K) keys[i], (V) values[i]);
+        };
+
+        if(sequential != null)
+        {
+            try(DataInputStream in = sequential)
+            {
+                TSBSnapshot.readBlocks(in, header, sink);
+            }
+            return;
+        }
+
+        if(pairs[p] == 0) return;
+        try(FileChannel ch = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            ch.position(offsets[p]);
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(ch), 1 << 16));
+            TSBSnapshot.Header h = new TSBSnapshot.Header(header.version, header.kind, header.codec, header.bits, pairs[p]);
+            TSBSnapshot.readBlocks(in, h, (partition, keys, values) ->
+            {
+                if(partition != p) throw new StreamCorruptedException("load(): índice de particiones inválido...");
+                sink.block(partition, keys, values);
+            });
+        }
+    }
+
+    /*
+     * Lee el índice de particiones del final del archivo.
+     */
+    private static void readIndex(Path file, long offsets[], int pairs[]) throws IOException
+    {
+        try(FileChannel ch = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            long size = ch.size();
+            long index = readFully(ch, size - 8, 8).getLong();
+            long length = 12L * offsets.length;
+            if(index < TSBSnapshot.HEADER_BYTES || index + length + 8 != size)
+            {
+                throw new StreamCorruptedException("readIndex(): " + file + " no tiene un índice válido...");
+            }
+            ByteBuffer b = readFully(ch, index, (int) length);
+            for(int p = 0; p < offsets.length; p++)
+            {
+                offsets[p] = b.getLong();
+                pairs[p] = b.getInt();
+                if(offsets[p] < TSBSnapshot.HEADER_BYTES || offsets[p] > index || pairs[p] < 0)
+                {
+                    throw new StreamCorruptedException("readIndex(): índice de particiones inválido...");
+                }
+            }
+        }
+    }
+
+    private static ByteBuffer readFully(FileChannel ch, long pos, int len) throws IOException
+    {
+        if(pos < 0) throw new StreamCorruptedException("readFully(): archivo demasiado corto...");
+        ByteBuffer b = ByteBuffer.allocate(len);
+        while(b.hasRemaining())
+        {
+            if(ch.read(b, pos + b.position()) < 0) throw new StreamCorruptedException("readFully(): archivo incompleto...");
+        }
+        b.flip();
+        return b;
+    }
+
+    /**
+     * Abre una tabla grabada con TSBSnapshot, informando el tiempo hasta
+     * conocer la cantidad de palabras, hasta la primera consulta y hasta la
+     * carga completa.
+     * Uso: java clases.TSBLazyTable archivo palabra
+     * @param args el archivo y la palabra a consultar.
+     * @throws IOException si el archivo no puede leerse.
+     */
+    public static void main(String args[]) throws IOException
+    {
+        long t0 = System.nanoTime();
+        TSBLazyTable<String, Integer> lazy = open(Paths.get(args[0]));
+        System.out.printf("Palabras distintas: %d (%.3f ms)%n", lazy.size(), (System.nanoTime() - t0) / 1e6);
+        Integer f = lazy.get(args[1]);
+        System.out.printf("Frecuencia de '%s': %s (%.3f ms)%n", args[1], f, (System.nanoTime() - t0) / 1e6);
+        lazy.getTable();
+        System.out.printf("Carga completa: %.3f ms%n", (System.nanoTime() - t0) / 1e6);
+    }
+}
@@ -0,0 +1,476 @@
+package clases;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.RandomAccess;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.LongConsumer;
+import java.util.stream.LongStream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Una lista de valores long implementada sobre un arreglo de tipo long[], con la
+ * misma forma de uso que TSBArrayList pero sin envolver cada valor en un objeto
+ * Long. Cada elemento ocupa 8 bytes (contra unos 28 bytes de una referencia
+ * más un Long en TSBArrayList<Long>), y los recorridos acceden a memoria
+ * contigua, lo que permite al compilador JIT vectorizar los ciclos simples.
+ *
+ * La lista aplica la misma política de crecimiento que TSBArrayList: duplica
+ * su arreglo cuando está lleno, y lo reduce a la mitad sólo cuando la
+ * ocupación cae por debajo de 1/4 (y nunca por debajo de la capacidad
+ * inicial). Como no es una List<Long>, los métodos de acceso usan nombres
+ * propios para evitar ambigüedades con los índices: getLong(), removeAt().
+ *
+ * @version Octubre de 2026.
+ */
+public class TSBLongArrayList implements RandomAccess, Cloneable, Serializable
+{
+    // el valor calculado por serialver para la primera versión de la clase,
+    // para seguir leyendo las listas ya grabadas...
+    private static final long serialVersionUID = 8035169773705077382L;
+
+    // la lista achica su arreglo sólo si la ocupación cae por debajo de
+    // 1/SHRINK_THRESHOLD de la capacidad (igual que TSBArrayList)...
+    private static final int SHRINK_THRESHOLD = 4;
+
+    // el arreglo que contendrá los elementos...
+    private long[] items;
+
+    // el tamaño inicial del arreglo...
+    private int initial_capacity;
+
+    // la cantidad de casillas realmente usadas...
+    private int count;
+
+    // conteo de operaciones de cambio de tamaño (fail-fast iterator).
+    protected transient int modCount;
+
+    /**
+     * Crea una lista vacía con capacidad inicial de 10 casilleros.
+     */
+    public TSBLongArrayList()
+    {
+        this(10);
+    }
+
+    /**
+     * Crea una lista vacía con initialCapacity casilleros de capacidad. Si el
+     * valor de initialCapacity es <= 0, el valor se ajusta a 10.
+     * @param initialCapacity la capacidad inicial de la lista.
+     */
+    public TSBLongArrayList(int initialCapacity)
+    {
+        if (initialCapacity <= 0)
+        {
+            initialCapacity = 10;
+        }
+        items = new long[initialCapacity];
+        initial_capacity = initialCapacity;
+        count = 0;
+    }
+
+    /**
+     * Crea una lista conteniendo una copia de los valores del arreglo a.
+     * @param a el arreglo cuyos valores serán copiados en la lista.
+     * @throws NullPointerException si a es null.
+     */
+    public TSBLongArrayList(long a[])
+    {
+        this(a.length);
+        System.arraycopy(a, 0, items, 0, a.length);
+        count = a.length;
+    }
+
+    /**
+     * Agrega el valor x al final de la lista.
+     * @param x el valor a agregar.
+     */
+    public void add(long x)
+    {
+        if(count == items.length) this.grow();
+        items[count++] = x;
+        this.modCount++;
+    }
+
+    /**
+     * Inserta el valor x en la posición index, desplazando una casilla hacia
+     * la derecha a los valores que estaban desde index en adelante.
+     * @param index el índice de la casilla donde debe quedar x.
+     * @param x el valor a agregar.
+     * @throws IndexOutOfBoundsException si index < 0 o index > size().
+     */
+    public void add(int index, long x)
+    {
+        if(index > count || index < 0)
+        {
+            throw new IndexOutOfBoundsException("add(): índice fuera de rango...");
+        }
+
+        if(count == items.length) this.grow();
+
+        System.arraycopy(items, index, items, index + 1, count - index);
+        items[index] = x;
+        count++;
+        this.modCount++;
+    }
+
+    /**
+     * Agrega al final de la lista los len valores del arreglo a que comienzan
+     * en la posición off, con un único arraycopy.
+     * @param a el arreglo con los valores a agregar.
+     * @param off la posición del primer valor a agregar.
+     * @param len la cantidad de valores a agregar.
+     * @throws IndexOutOfBoundsException si off y len no son válidos para a.
+     */
+    public void addAll(long a[], int off, int len)
+    {
+        if(off < 0 || len < 0 || off + len > a.length)
+        {
+            throw new IndexOutOfBoundsException("addAll(): índice fuera de rango...");
+        }
+        if(count + len > items.length)
+        {
+            this.ensureCapacity(Math.max(count + len, items.length * 2));
+        }
+        System.arraycopy(a, off, items, count, len);
+        count += len;
+        this.modCount++;
+    }
+
+    /**
+     * Elimina todo el contenido de la lista, y reinicia su capacidad al valor
+     * de la capacidad con que fue creada originalmente.
+     */
+    public void clear()
+    {
+        items = new long[initial_capacity];
+        count = 0;
+        this.modCount++;
+    }
+
+    /**
+     * Retorna una copia de la lista (con su propio arreglo de soporte, del
+     * tamaño justo para contener sus elementos).
+     * @return una copia de la lista.
+     * @throws java.lang.CloneNotSupportedException si la clase no implementa la
+     *         interface Cloneable.
+     */
+    @Override
+    public Object clone() throws CloneNotSupportedException
+    {
+        TSBLongArrayList temp = (TSBLongArrayList) super.clone();
+        temp.items = Arrays.copyOf(items, Math.max(count, 1));
+        temp.modCount = 0;
+        return temp;
+    }
+
+    /**
+     * Devuelve true si la lista contiene al valor x.
+     * @param x el valor a buscar en la lista.
+     * @return true si la lista contiene a x.
+     */
+    public boolean contains(long x)
+    {
+        return this.indexOf(x) != -1;
+    }
+
+    /**
+     * Aumenta la capacidad del arreglo de soporte, si es necesario, para
+     * asegurar que pueda contener al menos un número de elementos igual al
+     * indicado por el parámetro minCapacity.
+     * @param minCapacity - la mínima capacidad requerida.
+     */
+    public void ensureCapacity(int minCapacity)
+    {
+        if(minCapacity == items.length) return;
+        if(minCapacity < count) return;
+
+        items = Arrays.copyOf(items, minCapacity);
+    }
+
+    /**
+     * Determina si esta lista es igual al objeto especificado: es igual si el
+     * objeto es también una TSBLongArrayList con los mismos valores en el mismo
+     * orden.
+     * @param obj el objeto a comparar con esta lista.
+     * @return true si los objetos son iguales.
+     */
+    @Override
+    public boolean equals(Object obj)
+    {
+        if(this == obj) return true;
+        if(!(obj instanceof TSBLongArrayList)) return false;
+
+        TSBLongArrayList other = (TSBLongArrayList) obj;
+        if(other.count != this.count) return false;
+        for(int i = 0; i < count; i++)
+        {
+            if(items[i] != other.items[i]) return false;
+        }
+        return true;
+    }
+
+    /**
+     * Aplica la acción indicada a cada valor de la lista, en orden.
+     * @param action la acción a aplicar sobre cada valor.
+     * @throws ConcurrentModificationException si la lista cambia durante el
+     *         recorrido.
+     */
+    public void forEach(LongConsumer action)
+    {
+        int expected_modCount = this.modCount;
+        long a[] = items;
+        int n = count;
+        for(int i = 0; i < n && this.modCount == expected_modCount; i++)
+        {
+            action.accept(a[i]);
+        }
+        if(this.modCount != expected_modCount)
+        {
+            throw new ConcurrentModificationException("forEach(): modificación inesperada de la lista...");
+        }
+    }
+
+    /**
+     * Retorna el valor contenido en la casilla index.
+     * @param index índice de la casilla a acceder.
+     * @return el valor contenido en la casilla index.
+     * @throws IndexOutOfBoundsException si index < 0 o index >= size().
+     */
+    public long getLong(int index)
+    {
+        if (index < 0 || index >= count)
+        {
+            throw new IndexOutOfBoundsException("getLong(): índice fuera de rango...");
+        }
+        return items[index];
+    }
+
+    /**
+     * Retorna un hash code para la lista, calculado sobre sus valores de la
+     * misma forma que Arrays.hashCode().
+     * @return un hash code para la lista.
+     */
+    @Override
+    public int hashCode()
+    {
+        int hc = 1;
+        for(int i = 0; i < count; i++)
+        {
+            hc = 31 * hc + (int)(items[i] ^ (items[i] >>> 32));
+        }
+        return hc;
+    }
+
+    /**
+     * Retorna el índice de la primera ocurrencia de x en la lista, o -1 si la
+     * lista no contiene a x.
+     * @param x el valor a buscar.
+     * @return el índice de la primera ocurrencia de x, o -1 si no está.
+     */
+    public int indexOf(long x)
+    {
+        long a[] = items;
+        for(int i = 0; i < count; i++)
+        {
+            if(a[i] == x) return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Devuelve true si la lista no contiene elementos.
+     * @return true si la lista está vacía.
+     */
+    public boolean isEmpty()
+    {
+        return (count == 0);
+    }
+
+    /**
+     * Retorna un iterador de valores long (sin conversión a Long) sobre la
+     * lista. El iterador es fail-fast.
+     * @return un iterador sobre los valores de la lista.
+     */
+    public PrimitiveIterator.OfLong iterator()
+    {
+        return new PrimitiveIterator.OfLong()
+        {
+            private int cursor = 0;
+            private final int expected_modCount = TSBLongArrayList.this.modCount;
+
+            @Override
+            public boolean hasNext()
+            {
+                return cursor < TSBLongArrayList.this.count;
+            }
+
+            @Override
+            public long nextLong()
+            {
+                if(TSBLongArrayList.this.modCount != expected_modCount)
+                {
+                    throw new ConcurrentModificationException("next(): modificación inesperada de la lista...");
+                }
+                if(cursor >= TSBLongArrayList.this.count)
+                {
+                    throw new NoSuchElementException("next(): no existe el elemento pedido...");
+                }
+                return TSBLongArrayList.this.items[cursor++];
+            }
+        };
+    }
+
+    /**
+     * Remueve de la lista el valor contenido en la posición index, desplazando
+     * los valores que le siguen una casilla a la izquierda. La capacidad se
+     * reduce a la mitad sólo si la ocupación cae por debajo de 1/4.
+     * @param index el índice de la casilla a remover.
+     * @return el valor removido de la lista.
+     * @throws IndexOutOfBoundsException si index < 0 o index >= size().
+     */
+    public long removeAt(int index)
+    {
+        if(index >= count || index < 0)
+        {
+            throw new IndexOutOfBoundsException("removeAt(): índice fuera de rango...");
+        }
+
+        long old = items[index];
+        System.arraycopy(items, index + 1, items, index, count - index - 1);
+        count--;
+
+        this.shrinkIfSparse();
+        this.modCount++;
+        return old;
+    }
+
+    /**
+     * Reemplaza el valor en la posición index por x, y retorna el valor
+     * originalmente contenido en esa posición.
+     * @param index índice de la casilla a modificar.
+     * @param x el valor que será ubicado en la posición index.
+     * @return el valor originalmente contenido en la posición index.
+     * @throws IndexOutOfBoundsException si index < 0 o index >= size().
+     */
+    public long set(int index, long x)
+    {
+        if (index < 0 || index >= count)
+        {
+            throw new IndexOutOfBoundsException("set(): índice fuera de rango...");
+        }
+        long old = items[index];
+        items[index] = x;
+        return old;
+    }
+
+    /**
+     * Reduce a la mitad la capacidad del arreglo de soporte si la cantidad de
+     * elementos cayó por debajo de 1/4 de esa capacidad (sin bajar de la
+     * capacidad inicial). Ver TSBArrayList.shrinkIfSparse().
+     * @return true si el arreglo de soporte fue efectivamente reducido.
+     */
+    public boolean shrinkIfSparse()
+    {
+        int t = items.length;
+        if(count >= t / SHRINK_THRESHOLD) return false;
+
+        int n = Math.max(t / 2, initial_capacity);
+        if(n >= t) return false;
+
+        this.ensureCapacity(n);
+        return true;
+    }
+
+    /**
+     * Retorna el tamaño de la lista: la cantidad de valores contenidos en ella.
+     * @return la cantidad de elementos que la lista contiene.
+     */
+    public int size()
+    {
+        return count;
+    }
+
+    /**
+     * Ordena los valores de la lista en forma ascendente.
+     */
+    public void sort()
+    {
+        Arrays.sort(items, 0, count);
+        this.modCount++;
+    }
+
+    /**
+     * Retorna un Spliterator.OfLong sobre los valores de la lista, con las
+     * características ORDERED, SIZED y SUBSIZED respecto de la porción usada
+     * del arreglo al momento de crearlo. No es IMMUTABLE: la lista no debe
+     * modificarse mientras se lo usa, y el Spliterator no detecta esos
+     * cambios.
+     * @return un Spliterator sobre los valores de la lista.
+     */
+    public Spliterator.OfLong spliterator()
+    {
+        return Spliterators.spliterator(items, 0, count, Spliterator.ORDERED);
+    }
+
+    /**
+     * Retorna un LongStream secuencial sobre los valores de la lista.
+     * @return un LongStream con los valores de la lista.
+     */
+    public LongStream stream()
+    {
+        return StreamSupport.longStream(this.spliterator(), false);
+    }
+
+    /**
+     * Retorna un arreglo nuevo con los valores de la lista, en orden.
+     * @return un arreglo con los valores de la lista.
+     */
+    public long[] toArray()
+    {
+        return Arrays.copyOf(items, count);
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder buff = new StringBuilder();
+        buff.append('{');
+        for (int i=0; i<count; i++)
+        {
+            buff.append(items[i]);
+            if(i < count-1)
+            {
+                buff.append(", ");
+            }
+        }
+        buff.append('}');
+        return buff.toString();
+    }
+
+    /**
+     * Ajusta el tamaño del arreglo de soporte, para que coincida con el tamaño
+     * de la lista.
+     */
+    public void trimToSize()
+    {
+        if(count == items.length) return;
+        items = Arrays.copyOf(items, count);
+    }
+
+    /*
+     * Duplica la capacidad del arreglo de soporte (o la lleva a la capacidad
+     * inicial si el arreglo quedó vacío luego de un trimToSize()).
+     */
+    private void grow()
+    {
+        int n = items.length * 2;
+        if(n < initial_capacity) n = Math.max(initial_capacity, 1);
+        if(n < 0) n = Integer.MAX_VALUE - 8;
+        this.ensureCapacity(n);
+    }
+}
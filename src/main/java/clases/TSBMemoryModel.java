@@ -0,0 +1,232 @@
+package clases;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Modelo de la distribución de los objetos en memoria de una JVM de 64 bits
+ * (tamaño de las cabeceras de objetos y arreglos, de las referencias y
+ * alineación), usado por memoryFootprint() en TSB_OAHashtable y TSBHashtable
+ * para estimar cuántos bytes de heap ocupa una tabla.
+ *
+ * COMPRESSED_OOPS corresponde a la configuración por defecto de HotSpot con
+ * heaps de menos de 32 GB (referencias de 4 bytes y cabeceras de 12);
+ * UNCOMPRESSED_OOPS, a heaps más grandes o a -XX:-UseCompressedOops
+ * (referencias de 8 bytes y cabeceras de 16). detect() arma el modelo de la
+ * JVM en ejecución a partir de sus opciones.
+ *
+ * El tamaño de un objeto se calcula como la cabecera más la suma de sus
+ * atributos, redondeada a la alineación: en HotSpot coincide con el tamaño
+ * real salvo por algún hueco de relleno entre atributos. Los String incluyen
+ * su arreglo de caracteres (de 1 byte por caracter si la JVM usa compact
+ * strings y el texto es Latin-1), los Integer del caché de Integer.valueOf()
+ * no se cuentan (son compartidos), y de los demás objetos se cuenta sólo el
+ * objeto mismo, sin los objetos a los que referencia.
+ *
+ * @version Octubre de 2026.
+ */
+public class TSBMemoryModel
+{
+    /**
+     * Referencias comprimidas (4 bytes) y punteros a clase comprimidos: la
+     * configuración por defecto de HotSpot de 64 bits con menos de 32 GB de
+     * heap.
+     */
+    public static final TSBMemoryModel COMPRESSED_OOPS = new TSBMemoryModel(12, 4, 16, 8, compactStrings());
+
+    /**
+     * Referencias de 8 bytes y punteros a clase sin comprimir
+     * (-XX:-UseCompressedOops -XX:-UseCompressedClassPointers).
+     */
+    public static final TSBMemoryModel UNCOMPRESSED_OOPS = new TSBMemoryModel(16, 8, 24, 8, compactStrings());
+
+    private final int header;
+    private final int reference;
+    private final int array_header;
+    private final int alignment;
+    private final boolean compact_strings;
+
+    // tamaño (sin alinear) de los atributos de cada clase...
+    private final ConcurrentHashMap<Class<?>, Long> fields = new ConcurrentHashMap<>();
+
+    /**
+     * Crea un modelo con los tamaños indicados.
+     * @param header el tamaño de la cabecera de un objeto.
+     * @param reference el tamaño de una referencia.
+     * @param array_header el tamaño de la cabecera de un arreglo (incluyendo
+     *        su longitud y el relleno hasta el primer elemento).
+     * @param alignment la alineación de los objetos (potencia de 2).
+     * @param compact_strings true si los String Latin-1 usan 1 byte por
+     *        caracter (Java 9 o posterior).
+     * @throws IllegalArgumentException si algún tamaño no es válido.
+     */
+    public TSBMemoryModel(int header, int reference, int array_header, int alignment, boolean compact_strings)
+    {
+        if(header <= 0 || (reference != 4 && reference != 8) || array_header <= 0
+           || alignment <= 0 || (alignment & (alignment - 1)) != 0)
+        {
+            throw new IllegalArgumentException("TSBMemoryModel(): tamaños inválidos...");
+        }
+        this.header = header;
+        this.reference = reference;
+        this.array_header = array_header;
+        this.alignment = alignment;
+        this.compact_strings = compact_strings;
+    }
+
+    /**
+     * Arma el modelo de la JVM en ejecución a partir de sus opciones
+     * UseCompressedOops, UseCompressedClassPointers y ObjectAlignmentInBytes.
+     * Si no puede consultarlas (una JVM que no es HotSpot), retorna
+     * COMPRESSED_OOPS.
+     * @return el modelo de la JVM en ejecución.
+     */
+    public static TSBMemoryModel detect()
+    {
+        try
+        {
+            com.sun.management.HotSpotDiagnosticMXBean vm =
+                    ManagementFactory.getPlatformMXBean(com.sun.management.HotSpotDiagnosticMXBean.class);
+            boolean oops = Boolean.parseBoolean(vm.getVMOption("UseCompressedOops").getValue());
+            boolean klass = Boolean.parseBoolean(vm.getVMOption("UseCompressedClassPointers").getValue());
+            int alignment = Integer.parseInt(vm.getVMOption("ObjectAlignmentInBytes").getValue());
+            int header = klass ? 12 : 16;
+            int array_header = (header + 4 + 7) & ~7;
+            boolean compact = compactStrings();
+            if(compact) compact = Boolean.parseBoolean(vm.getVMOption("CompactStrings").getValue());
+            return new TSBMemoryModel(header, oops ? 4 : 8, array_header, alignment, compact);
+        }
+        catch(RuntimeException | LinkageError e)
+        {
+            return COMPRESSED_OOPS;
+        }
+    }
+
+    public int getHeader()
+    {
+        return header;
+    }
+
+    public int getReference()
+    {
+        return reference;
+    }
+
+    public int getArrayHeader()
+    {
+        return array_header;
+    }
+
+    public int getAlignment()
+    {
+        return alignment;
+    }
+
+    public boolean isCompactStrings()
+    {
+        return compact_strings;
+    }
+
+    /**
+     * Retorna el tamaño de un arreglo de length elementos de element bytes.
+     * @param length la cantidad de elementos.
+     * @param element el tamaño de cada elemento.
+     * @return el tamaño del arreglo, en bytes.
+     */
+    public long array(int length, int element)
+    {
+        return align(array_header + (long) length * element);
+    }
+
+    /**
+     * Retorna el tamaño de un arreglo de length referencias.
+     * @param length la cantidad de elementos.
+     * @return el tamaño del arreglo, en bytes.
+     */
+    public long references(int length)
+    {
+        return array(length, reference);
+    }
+
+    /**
+     * Retorna el tamaño de una instancia de la clase c, sin contar los
+     * objetos a los que referencia.
+     * @param c la clase.
+     * @return el tamaño de cada instancia, en bytes.
+     */
+    public long shallow(Class<?> c)
+    {
+        Long f = fields.get(c);
+        if(f == null)
+        {
+            long sum = 0;
+            for(Class<?> k = c; k != null; k = k.getSuperclass())
+            {
+                for(Field field : k.getDeclaredFields())
+                {
+                    if(!Modifier.isStatic(field.getModifiers())) sum += this.size(field.getType());
+                }
+            }
+            fields.put(c, f = sum);
+        }
+        return align(header + f);
+    }
+
+    /**
+     * Retorna el tamaño estimado del objeto o (ver la descripción de la
+     * clase): los String incluyen su arreglo de caracteres, los Integer
+     * compartidos no se cuentan, y de los demás objetos se cuenta sólo el
+     * objeto mismo.
+     * @param o el objeto.
+     * @return el tamaño del objeto, en bytes (0 si o es null o compartido).
+     */
+    public long sizeOf(Object o)
+    {
+        if(o == null) return 0;
+        if(o instanceof String)
+        {
+            String s = (String) o;
+            int bytes = 2;
+            if(compact_strings)
+            {
+                bytes = 1;
+                for(int i = 0; i < s.length() && bytes == 1; i++)
+                {
+                    if(s.charAt(i) > 0xFF) bytes = 2;
+                }
+            }
+            return this.shallow(String.class) + this.array(s.length(), bytes);
+        }
+        if(o instanceof Integer && Integer.valueOf((Integer) o) == o) return 0;
+        return this.shallow(o.getClass());
+    }
+
+    private long align(long size)
+    {
+        return (size + alignment - 1) & -alignment;
+    }
+
+    private int size(Class<?> type)
+    {
+        if(!type.isPrimitive()) return reference;
+        if(type == long.class || type == double.class) return 8;
+        if(type == int.class || type == float.class) return 4;
+        if(type == short.class || type == char.class) return 2;
+        return 1;
+    }
+
+    private static boolean compactStrings()
+    {
+        String v = System.getProperty("java.specification.version", "1.8");
+        return !v.startsWith("1.");
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("cabecera %d, referencia %d, cabecera de arreglo %d, alineación %d%s",
+                             header, reference, array_header, alignment, compact_strings ? ", compact strings" : "");
+    }
+}
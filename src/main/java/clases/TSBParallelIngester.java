@@ -0,0 +1,323 @@
+package clases;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Carga en paralelo uno o varios archivos de texto, contando la frecuencia de
+ * cada palabra (requerimiento 5 del enunciado: "procesar uno o varios archivos
+ * de texto"). Los archivos se procesan en un ForkJoinPool, y los archivos más
+ * grandes que splitSize se dividen en rangos de bytes cortados en límites de
+ * palabras, de forma que un único archivo grande también aproveche todos los
+ * núcleos.
+ *
+ * Cada hilo del pool cuenta en su propia tabla (con su propio
+ * TSBWordIngester), por lo que no hay ninguna sincronización mientras se
+ * cuentan palabras. Al terminar, las tablas de los hilos se combinan de a
+ * pares en un árbol fork/join, y el resultado se suma a la tabla destino. El
+ * resultado es idéntico al de procesar los mismos archivos en forma
+ * secuencial con un único TSBWordIngester.
+ *
+ * La división de archivos en rangos requiere que los bytes ASCII representen
+ * siempre caracteres ASCII (UTF-8, ISO-8859-1, windows-1252, etc.); con otros
+ * juegos de caracteres (UTF-16, por ejemplo) cada archivo se procesa entero.
+ *
+ * @version Octubre de 2026.
+ */
+public class TSBParallelIngester
+{
+    // tamaño por defecto de los rangos en que se dividen los archivos...
+    public static final long DEFAULT_SPLIT_SIZE = 32L << 20;
+
+    private final int parallelism;
+    private final Charset charset;
+    private final long split_size;
+
+    /**
+     * Crea un ingester paralelo que usa un hilo por procesador disponible, lee
+     * los archivos como UTF-8 y los divide en rangos de 32 MB.
+     */
+    public TSBParallelIngester()
+    {
+        this(Runtime.getRuntime().availableProcessors(), StandardCharsets.UTF_8, DEFAULT_SPLIT_SIZE);
+    }
+
+    /**
+     * Crea un ingester paralelo con la cantidad de hilos, el juego de
+     * caracteres y el tamaño de rango indicados. Si parallelism es menor a 1
+     * se ajusta a 1, y si splitSize es menor a 64 KB se ajusta a 64 KB.
+     * @param parallelism la cantidad de hilos a usar.
+     * @param charset el juego de caracteres de los archivos.
+     * @param splitSize el tamaño aproximado de los rangos de cada archivo.
+     * @throws NullPointerException si charset es null.
+     */
+    public TSBParallelIngester(int parallelism, Charset charset, long splitSize)
+    {
+        if(charset == null) throw new NullPointerException("TSBParallelIngester(): parámetro null");
+        this.parallelism = Math.max(parallelism, 1);
+        this.charset = charset;
+        this.split_size = Math.max(splitSize, 1 << 16);
+    }
+
+    /**
+     * Procesa los archivos indicados y suma a la tabla target las frecuencias
+     * de las palabras que contienen.
+     * @param target la tabla en la que se acumulan las frecuencias.
+     * @param files los archivos a procesar.
+     * @return las estadísticas del proceso completo (incluida la combinación
+     *         de las tablas de cada hilo).
+     * @throws IOException si alguno de los archivos no puede leerse.
+     */
+    public TSBIngestionStats ingest(TSB_OAHashtable<String, Integer> target, Path... files) throws IOException
+    {
+        long t0 = System.nanoTime();
+        List<Range> ranges = this.split(files);
+
+        // un ingester (con su tabla) por cada hilo del pool...
+        ConcurrentLinkedQueue<TSBWordIngester> workers = new ConcurrentLinkedQueue<>();
+        ThreadLocal<TSBWordIngester> local = ThreadLocal.withInitial(() ->
+        {
+            TSBWordIngester w = new TSBWordIngester(new TSB_OAHashtable<>(), charset, TSBWordIngester.DEFAULT_BUFFER_SIZE);
+            workers.add(w);
+            return w;
+        });
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try
+        {
+            List<ForkJoinTask<TSBIngestionStats>> tasks = new ArrayList<>();
+            for(Range r : ranges)
+            {
+                tasks.add(pool.submit(() ->
+                {
+                    try
+                    {
+                        return local.get().ingest(r.file, r.start, r.end);
+                    }
+                    catch(IOException e)
+                    {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+            }
+
+            long bytes = 0, words = 0;
+            for(ForkJoinTask<TSBIngestionStats> task : tasks)
+            {
+                TSBIngestionStats s = join(task);
+                bytes += s.getBytes();
+                words += s.getWords();
+            }
+
+            // combinar las tablas de los hilos de a pares...
+            List<TSB_OAHashtable<String, Integer>> tables = new ArrayList<>();
+            for(TSBWordIngester w : workers) tables.add(w.getTable());
+            if(!tables.isEmpty())
+            {
+                TSB_OAHashtable<String, Integer> merged = pool.invoke(new Merge(tables, 0, tables.size()));
+                merge(target, merged);
+            }
+
+            return new TSBIngestionStats(files.length, bytes, words, System.nanoTime() - t0);
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Suma a la tabla target las frecuencias contenidas en la tabla source.
+     * @param target la tabla en la que se acumulan las frecuencias.
+     * @param source la tabla cuyas frecuencias se suman.
+     */
+    public static void merge(TSB_OAHashtable<String, Integer> target, TSB_OAHashtable<String, Integer> source)
+    {
+        Object event = TSBEvents.beginIngestion();
+        for(Map.Entry<String, Integer> e : source.entrySet())
+        {
+            target.increment(e.getKey(), e.getValue());
+        }
+        TSBEvents.endIngestion(event, "fusión", null, 0, source.size());
+    }
+
+    /*
+     * Divide cada archivo en rangos de aproximadamente split_size bytes, con
+     * los cortes desplazados hasta el siguiente separador ASCII.
+     */
+    private List<Range> split(Path files[]) throws IOException
+    {
+        boolean splittable = isAsciiCompatible(charset);
+        List<Range> ranges = new ArrayList<>();
+        for(Path file : files)
+        {
+            long size = Files.size(file);
+            if(!splittable || size <= split_size)
+            {
+                ranges.add(new Range(file, 0, size));
+                continue;
+            }
+
+            try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+            {
+                long start = 0;
+                while(start < size)
+                {
+                    long end = (size - start <= split_size) ? size : boundary(channel, start + split_size, size);
+                    ranges.add(new Range(file, start, end));
+                    start = end;
+                }
+            }
+        }
+        return ranges;
+    }
+
+    /*
+     * Retorna la primera posición p >= pos tal que el byte en p-1 es un
+     * separador ASCII (ni letra ni dígito), o size si no hay ninguna. Un corte
+     * en p nunca parte una palabra ni un caracter multibyte.
+     */
+    private static long boundary(FileChannel channel, long pos, long size) throws IOException
+    {
+        ByteBuffer buf = ByteBuffer.allocate(4096);
+        long p = pos - 1;
+        while(p < size)
+        {
+            buf.clear();
+            int n = channel.read(buf, p);
+            if(n <= 0) break;
+            for(int i = 0; i < n; i++)
+            {
+                int b = buf.get(i) & 0xFF;
+                if(b < 128 && !Character.isLetterOrDigit(b)) return p + i + 1;
+            }
+            p += n;
+        }
+        return size;
+    }
+
+    /*
+     * Determina si en el juego de caracteres cs cada byte menor a 128 es
+     * siempre el caracter ASCII correspondiente.
+     */
+    static boolean isAsciiCompatible(Charset cs)
+    {
+        if(cs.equals(StandardCharsets.UTF_8)) return true;
+        return cs.newEncoder().maxBytesPerChar() == 1 && cs.contains(StandardCharsets.US_ASCII);
+    }
+
+    private static <T> T join(ForkJoinTask<T> task) throws IOException
+    {
+        try
+        {
+            return task.join();
+        }
+        catch(UncheckedIOException e)
+        {
+            throw e.getCause();
+        }
+    }
+
+    /*
+     * Un rango de bytes [start, end) de un archivo.
+     */
+    private static class Range
+    {
+        private final Path file;
+        private final long start;
+        private final long end;
+
+        Range(Path file, long start, long end)
+        {
+            this.file = file;
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    /*
+     * Combina las tablas [from, to) de la lista de a pares: cada mitad se
+     * combina en paralelo, y luego la tabla más chica se suma a la más grande.
+     */
+    private static class Merge extends RecursiveTask<TSB_OAHashtable<String, Integer>>
+    {
+        // ForkJoinTask es Serializable, pero las tareas nunca se serializan...
+        private static final long serialVersionUID = 1L;
+
+        private final List<TSB_OAHashtable<String, Integer>> tables;
+        private final int from;
+        private final int to;
+
+        Merge(List<TSB_OAHashtable<String, Integer>> tables, int from, int to)
+        {
+            this.tables = tables;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected TSB_OAHashtable<String, Integer> compute()
+        {
+            if(to - from == 1) return tables.get(from);
+
+            int mid = (from + to) >>> 1;
+            Merge left = new Merge(tables, from, mid);
+            left.fork();
+            TSB_OAHashtable<String, Integer> b = new Merge(tables, mid, to).compute();
+            TSB_OAHashtable<String, Integer> a = left.join();
+
+            if(a.size() < b.size())
+            {
+                TSB_OAHashtable<String, Integer> t = a;
+                a = b;
+                b = t;
+            }
+            merge(a, b);
+            return a;
+        }
+    }
+
+    /**
+     * Procesa los archivos indicados primero en forma secuencial y luego en
+     * paralelo, informando el rendimiento de ambos y verificando que las dos
+     * tablas obtenidas sean iguales.
+     * Uso: java clases.TSBParallelIngester [-threads n] archivo...
+     * @param args los archivos a procesar (y opcionalmente la cantidad de hilos).
+     * @throws IOException si alguno de los archivos no puede leerse.
+     */
+    public static void main(String args[]) throws IOException
+    {
+        int threads = Runtime.getRuntime().availableProcessors();
+        int first = 0;
+        if(args.length >= 2 && args[0].equals("-threads"))
+        {
+            threads = Integer.parseInt(args[1]);
+            first = 2;
+        }
+        Path files[] = new Path[args.length - first];
+        for(int i = first; i < args.length; i++) files[i - first] = Paths.get(args[i]);
+
+        TSB_OAHashtable<String, Integer> seq = new TSB_OAHashtable<>();
+        System.out.println("Secuencial: " + new TSBWordIngester(seq).ingest(files));
+
+        TSB_OAHashtable<String, Integer> par = new TSB_OAHashtable<>();
+        TSBParallelIngester ingester = new TSBParallelIngester(threads, StandardCharsets.UTF_8, DEFAULT_SPLIT_SIZE);
+        System.out.println("Paralelo (" + threads + " hilos): " + ingester.ingest(par, files));
+        System.out.println("Palabras distintas: " + par.size() + " - resultados iguales: " + seq.equals(par));
+    }
+}
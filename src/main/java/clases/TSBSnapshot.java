@@ -0,0 +1,749 @@
+package clases;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Grabación de una TSB_OAHashtable o una TSBHashtable en un formato compacto
+ * (sólo la cantidad de pares y cada par, sin la estructura interna de la
+ * tabla), opcionalmente comprimido, con la posibilidad de grabar en segundo
+ * plano sin detener a quien modifica la tabla.
+ *
+ * writeAsync() captura el contenido de la tabla copiando sus claves y
+ * valores a dos arreglos (ver TSB_OAHashtable.copyTo(): sólo se copian
+ * referencias, en un tiempo muy inferior al de grabar), y graba esos arreglos
+ * en otro hilo. Mientras tanto la tabla puede seguir siendo modificada: el
+ * archivo contiene exactamente el estado del momento de la captura. Al
+ * terminar, el CompletableFuture retornado informa la cantidad de pares, el
+ * tamaño del archivo y la duración de la captura y de la grabación.
+ *
+ * Formato: una cabecera (marca, versión, tipo de contenido, compresión, bits
+ * de partición y cantidad de pares) seguida de los pares. Si todas las claves son String y
+ * todos los valores Integer (la tabla de frecuencias de palabras) los pares
+ * se graban como (writeUTF, writeInt); en otro caso, por serialización.
+ *
+ * Con compresión (indicando un nivel de Deflater), los pares se dividen en
+ * bloques de BLOCK_PAIRS pares que se comprimen en forma independiente, en
+ * paralelo (en el ForkJoinPool común); al leer, los bloques también se
+ * descomprimen en paralelo mientras se insertan en la tabla los ya listos.
+ * Como el texto de las palabras es muy repetitivo, el archivo se reduce
+ * a una fracción y la carga desde discos lentos es más rápida.
+ *
+ * Además, en el formato por bloques los pares se agrupan en particiones
+ * según el hash de la clave (ver partition()), y los bloques se graban en
+ * orden de partición; al final del archivo, un índice registra la posición
+ * y la cantidad de pares de cada partición. Así TSBLazyTable puede leer
+ * primero la partición de una clave consultada, sin esperar al resto.
+ *
+ * El archivo se graba primero con otro nombre y luego se renombra, de forma
+ * que una grabación interrumpida nunca deja un archivo a medias.
+ *
+ * @version Octubre de 2026.
+ */
+public final class TSBSnapshot
+{
+    /**
+     * Nivel de compresión que indica grabar sin comprimir.
+     */
+    public static final int UNCOMPRESSED = -2;
+
+    /**
+     * Cantidad de pares de cada bloque comprimido.
+     */
+    public static final int BLOCK_PAIRS = 1 << 15;
+
+    static final int MAGIC = 0x54534253;    // "TSBS"
+    static final int VERSION = 3;
+
+    // tipos de contenido: pares (String, Integer) u objetos cualesquiera...
+    static final int WORDS = 0;
+    static final int OBJECTS = 1;
+
+    // compresión: ninguna o bloques Deflater...
+    static final int RAW = 0;
+    static final int DEFLATE = 1;
+
+    // máxima cantidad de bits de partición (hasta 64 particiones), y pares
+    // por partición a partir de los cuales conviene usar una más...
+    static final int MAX_PARTITION_BITS = 6;
+    private static final int PARTITION_PAIRS = 1 << 12;
+
+    // tamaño de la cabecera en la versión actual...
+    static final int HEADER_BYTES = 4 + 1 + 1 + 1 + 1 + 4;
+
+    // writeUTF() admite hasta 65535 bytes (hasta 3 por caracter)...
+    private static final int MAX_UTF_CHARS = 65535 / 3;
+
+    private TSBSnapshot()
+    {
+    }
+
+    /**
+     * Captura el contenido de la tabla y lo graba sin comprimir en el archivo
+     * indicado, en un hilo de fondo compartido. La captura se hace en el hilo
+     * que invoca a este método, que debe ser el que modifica la tabla (o
+     * estar sincronizado con él): la tabla no es thread-safe.
+     * @param table la tabla a grabar.
+     * @param file el archivo en el que se graba.
+     * @return un future que se completa con el resultado de la grabación (o
+     *         con la excepción producida al grabar).
+     */
+    public static <K, V> CompletableFuture<Result> writeAsync(Map<K, V> table, Path file)
+    {
+        return writeAsync(table, file, UNCOMPRESSED, Background.EXECUTOR);
+    }
+
+    /**
+     * Igual que writeAsync(table, file), pero comprimiendo con el nivel
+     * indicado.
+     * @param table la tabla a grabar.
+     * @param file el archivo en el que se graba.
+     * @param level el nivel de compresión (de 0 a 9, Deflater.DEFAULT_COMPRESSION
+     *        o UNCOMPRESSED).
+     * @return un future que se completa con el resultado de la grabación.
+     */
+    public static <K, V> CompletableFuture<Result> writeAsync(Map<K, V> table, Path file, int level)
+    {
+        return writeAsync(table, file, level, Background.EXECUTOR);
+    }
+
+    /**
+     * Igual que writeAsync(table, file, level), pero la grabación se ejecuta
+     * en el executor indicado.
+     * @param table la tabla a grabar.
+     * @param file el archivo en el que se graba.
+     * @param level el nivel de compresión.
+     * @param executor el executor en el que se ejecuta la grabación.
+     * @return un future que se completa con el resultado de la grabación.
+     */
+    public static <K, V> CompletableFuture<Result> writeAsync(Map<K, V> table, Path file, int level, Executor executor)
+    {
+        if(file == null || executor == null) throw new NullPointerException("writeAsync(): parámetro null");
+        checkLevel(level);
+        Capture c = capture(table);
+        return CompletableFuture.supplyAsync(() ->
+        {
+            try
+            {
+                return write(c, file, level);
+            }
+            catch(IOException e)
+            {
+                throw new UncheckedIOException(e);
+            }
+        }, executor);
+    }
+
+    /**
+     * Captura el contenido de la tabla y lo graba sin comprimir en el archivo
+     * indicado, en el hilo que invoca a este método.
+     * @param table la tabla a grabar.
+     * @param file el archivo en el que se graba.
+     * @return el resultado de la grabación.
+     * @throws IOException si el archivo no puede grabarse.
+     */
+    public static <K, V> Result write(Map<K, V> table, Path file) throws IOException
+    {
+        return write(table, file, UNCOMPRESSED);
+    }
+
+    /**
+     * Captura el contenido de la tabla y lo graba en el archivo indicado, con
+     * el nivel de compresión indicado, en el hilo que invoca a este método
+     * (los bloques se comprimen en paralelo).
+     * @param table la tabla a grabar.
+     * @param file el archivo en el que se graba.
+     * @param level el nivel de compresión (de 0 a 9, Deflater.DEFAULT_COMPRESSION
+     *        o UNCOMPRESSED).
+     * @return el resultado de la grabación.
+     * @throws IOException si el archivo no puede grabarse.
+     * @throws IllegalArgumentException si level no es un nivel válido.
+     */
+    public static <K, V> Result write(Map<K, V> table, Path file, int level) throws IOException
+    {
+        if(file == null) throw new NullPointerException("write(): parámetro null");
+        checkLevel(level);
+        return write(capture(table), file, level);
+    }
+
+    /**
+     * Lee en una TSB_OAHashtable una tabla grabada con write() o
+     * writeAsync() (comprimida o no).
+     * @param file el archivo a leer.
+     * @return la tabla leída.
+     * @throws IOException si el archivo no puede leerse o no es válido.
+     */
+    public static <K, V> TSB_OAHashtable<K, V> read(Path file) throws IOException
+    {
+        Object event = TSBEvents.beginSnapshot(false);
+        try(DataInputStream in = open(file))
+        {
+            Header h = readHeader(in, file);
+            TSB_OAHashtable<K, V> table = new TSB_OAHashtable<>((int) Math.min(Integer.MAX_VALUE, h.count / 0.75 + 1));
+            readPairs(in, h, table);
+            TSBEvents.endSnapshot(event, file, h.count, Files.size(file), h.codec == DEFLATE, 0);
+            return table;
+        }
+    }
+
+    /**
+     * Lee una tabla grabada con write() o writeAsync() (comprimida o no) y
+     * agrega sus pares al Map target (por ejemplo, una TSBHashtable).
+     * @param file el archivo a leer.
+     * @param target el Map en el que se agregan los pares leídos.
+     * @return la cantidad de pares leídos.
+     * @throws IOException si el archivo no puede leerse o no es válido.
+     */
+    public static <K, V> int read(Path file, Map<K, V> target) throws IOException
+    {
+        if(target == null) throw new NullPointerException("read(): parámetro null");
+        Object event = TSBEvents.beginSnapshot(false);
+        try(DataInputStream in = open(file))
+        {
+            Header h = readHeader(in, file);
+            readPairs(in, h, target);
+            TSBEvents.endSnapshot(event, file, h.count, Files.size(file), h.codec == DEFLATE, 0);
+            return h.count;
+        }
+    }
+
+    //************************ Lectura.
+
+    static DataInputStream open(Path file) throws IOException
+    {
+        return new DataInputStream(new BufferedInputStream(Files.newInputStream(file), 1 << 16));
+    }
+
+    /*
+     * Lee y controla la cabecera (la versión 1 no tiene byte de compresión y
+     * la 2 no tiene bits de partición).
+     */
+    static Header readHeader(DataInputStream in, Path file) throws IOException
+    {
+        if(in.readInt() != MAGIC) throw new StreamCorruptedException("readHeader(): " + file + " no es una tabla grabada...");
+        int version = in.readUnsignedByte();
+        if(version < 1 || version > VERSION) throw new StreamCorruptedException("readHeader(): versión " + version + " no soportada...");
+        int kind = in.readUnsignedByte();
+        if(kind != WORDS && kind != OBJECTS) throw new StreamCorruptedException("readHeader(): tipo de contenido inválido...");
+        int codec = (version >= 2) ? in.readUnsignedByte() : RAW;
+        if(codec != RAW && codec != DEFLATE) throw new StreamCorruptedException("readHeader(): compresión inválida...");
+        int bits = (version >= 3) ? in.readUnsignedByte() : 0;
+        if(bits > MAX_PARTITION_BITS || (bits > 0 && codec == RAW)) throw new StreamCorruptedException("readHeader(): particiones inválidas...");
+        int count = in.readInt();
+        if(count < 0) throw new StreamCorruptedException("readHeader(): cantidad de pares inválida...");
+        return new Header(version, kind, codec, bits, count);
+    }
+
+    @SuppressWarnings("unchecked")
+    static <K, V> void readPairs(DataInputStream in, Header h, Map<K, V> target) throws IOException
+    {
+        readBlocks(in, h, (partition, keys, values) ->
+        {
+            for(int i = 0; i < keys.length; i++) target.put((K) keys[i], (V) values[i]);
+        });
+    }
+
+    /*
+     * Lee los pares de a bloques, en el orden del archivo, entregando cada
+     * bloque al receptor. Los bloques comprimidos se descomprimen en
+     * paralelo mientras el receptor procesa los anteriores.
+     */
+    static void readBlocks(DataInputStream in, Header h, BlockSink sink) throws IOException
+    {
+        if(h.codec == RAW)
+        {
+            Block b = decode(in, h.kind, h.count);
+            sink.block(0, b.keys, b.values);
+            return;
+        }
+
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        int window = 2 * pool.getParallelism() + 1;
+        ArrayDeque<Future<Block>> pending = new ArrayDeque<>();
+        ArrayDeque<Integer> partitions = new ArrayDeque<>();
+        int remaining = h.count;
+        while(remaining > 0 || !pending.isEmpty())
+        {
+            if(remaining > 0 && pending.size() < window)
+            {
+                int pairs = in.readInt();
+                int partition = (h.version >= 3) ? in.readInt() : 0;
+                int raw_len = in.readInt();
+                int comp_len = in.readInt();
+                if(pairs <= 0 || pairs > remaining || raw_len < 0 || comp_len < 0
+                   || partition < 0 || partition >= (1 << h.bits))
+                {
+                    throw new StreamCorruptedException("readBlocks(): bloque inválido...");
+                }
+                byte comp[] = new byte[comp_len];
+                in.readFully(comp);
+                remaining -= pairs;
+                partitions.add(partition);
+                pending.add(pool.submit(() -> inflate(comp, raw_len, h.kind, pairs)));
+                continue;
+            }
+
+            Block b = get(pending.poll());
+            sink.block(partitions.poll(), b.keys, b.values);
+        }
+    }
+
+    /**
+     * Retorna la partición (entre 0 y 2^bits - 1) a la que corresponde la
+     * clave key en un archivo grabado con bits bits de partición.
+     * @param key la clave.
+     * @param bits la cantidad de bits de partición del archivo.
+     * @return el número de partición de la clave.
+     */
+    static int partition(Object key, int bits)
+    {
+        if(bits == 0) return 0;
+        int h = key.hashCode();
+        h ^= (h >>> 16);
+        return h & ((1 << bits) - 1);
+    }
+
+    private static Block inflate(byte comp[], int raw_len, int kind, int pairs) throws IOException
+    {
+        byte raw[] = new byte[raw_len];
+        Inflater inflater = new Inflater();
+        try
+        {
+            inflater.setInput(comp);
+            int n = 0;
+            while(n < raw_len && !inflater.finished())
+            {
+                int k = inflater.inflate(raw, n, raw_len - n);
+                if(k == 0 && (inflater.needsInput() || inflater.needsDictionary())) break;
+                n += k;
+            }
+            if(n != raw_len) throw new StreamCorruptedException("inflate(): bloque incompleto...");
+        }
+        catch(DataFormatException e)
+        {
+            throw new StreamCorruptedException("inflate(): bloque dañado...");
+        }
+        finally
+        {
+            inflater.end();
+        }
+        return decode(new DataInputStream(new ByteArrayInputStream(raw)), kind, pairs);
+    }
+
+    private static Block decode(DataInputStream in, int kind, int pairs) throws IOException
+    {
+        Block b = new Block(pairs);
+        if(kind == WORDS)
+        {
+            for(int i = 0; i < pairs; i++)
+            {
+                b.keys[i] = in.readUTF();
+                b.values[i] = in.readInt();
+            }
+            return b;
+        }
+
+        try
+        {
+            ObjectInputStream oin = new ObjectInputStream(in);
+            for(int i = 0; i < pairs; i++)
+            {
+                b.keys[i] = oin.readObject();
+                b.values[i] = oin.readObject();
+            }
+            return b;
+        }
+        catch(ClassNotFoundException e)
+        {
+            throw new StreamCorruptedException("decode(): clase desconocida " + e.getMessage() + "...");
+        }
+    }
+
+    //************************ Grabación.
+
+    private static void checkLevel(int level)
+    {
+        if(level != UNCOMPRESSED && level != Deflater.DEFAULT_COMPRESSION && (level < 0 || level > 9))
+        {
+            throw new IllegalArgumentException("checkLevel(): nivel de compresión inválido: " + level);
+        }
+    }
+
+    private static Capture capture(Map<?, ?> table)
+    {
+        long t0 = System.nanoTime();
+        int n = table.size();
+        Object keys[] = new Object[n];
+        Object values[] = new Object[n];
+        if(table instanceof TSB_OAHashtable) ((TSB_OAHashtable<?, ?>) table).copyTo(keys, values);
+        else if(table instanceof TSBHashtable) ((TSBHashtable<?, ?>) table).copyTo(keys, values);
+        else
+        {
+            int i = 0;
+            for(Map.Entry<?, ?> e : table.entrySet())
+            {
+                keys[i] = e.getKey();
+                values[i] = e.getValue();
+                i++;
+            }
+        }
+        return new Capture(keys, values, System.nanoTime() - t0);
+    }
+
+    private static int kind(Capture c)
+    {
+        for(int i = 0; i < c.keys.length; i++)
+        {
+            if(!(c.keys[i] instanceof String) || !(c.values[i] instanceof Integer)
+               || ((String) c.keys[i]).length() > MAX_UTF_CHARS) return OBJECTS;
+        }
+        return WORDS;
+    }
+
+    private static Result write(Capture c, Path file, int level) throws IOException
+    {
+        long t0 = System.nanoTime();
+        Object event = TSBEvents.beginSnapshot(true);
+        int kind = kind(c);
+        int n = c.keys.length;
+        Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+        try(DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp), 1 << 16)))
+        {
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeByte(kind);
+            out.writeByte((level == UNCOMPRESSED) ? RAW : DEFLATE);
+            int bits = (level == UNCOMPRESSED) ? 0 : partitionBits(n);
+            out.writeByte(bits);
+            out.writeInt(n);
+
+            if(level == UNCOMPRESSED) encode(out, c.keys, c.values, kind, 0, n);
+            else
+            {
+                // agrupar los pares por partición...
+                int start[] = new int[(1 << bits) + 1];
+                Object keys[] = c.keys, values[] = c.values;
+                if(bits > 0)
+                {
+                    keys = new Object[n];
+                    values = new Object[n];
+                    int part[] = new int[n];
+                    for(int i = 0; i < n; i++) start[(part[i] = partition(c.keys[i], bits)) + 1]++;
+                    for(int p = 1; p < start.length; p++) start[p] += start[p - 1];
+                    int next[] = Arrays.copyOf(start, start.length - 1);
+                    for(int i = 0; i < n; i++)
+                    {
+                        int j = next[part[i]]++;
+                        keys[j] = c.keys[i];
+                        values[j] = c.values[i];
+                    }
+                }
+                else start[1] = n;
+
+                // comprimir los bloques en paralelo, grabándolos en orden...
+                ForkJoinPool pool = ForkJoinPool.commonPool();
+                int window = 2 * pool.getParallelism() + 1;
+                ArrayDeque<Future<byte[]>> pending = new ArrayDeque<>();
+                Object k[] = keys, v[] = values;
+                long offsets[] = new long[start.length - 1];
+                Arrays.fill(offsets, -1);
+                long pos = HEADER_BYTES;
+                for(int p = 0; p < start.length - 1; p++)
+                {
+                    for(int from = start[p]; from < start[p + 1]; from += BLOCK_PAIRS)
+                    {
+                        int partition = p, lo = from, hi = Math.min(start[p + 1], from + BLOCK_PAIRS);
+                        pending.add(pool.submit(() -> deflate(k, v, kind, partition, lo, hi, level)));
+                        if(pending.size() >= window) pos = writeBlock(out, get(pending.poll()), offsets, pos);
+                    }
+                }
+                while(!pending.isEmpty()) pos = writeBlock(out, get(pending.poll()), offsets, pos);
+
+                // índice al final: posición y cantidad de pares de cada
+                // partición, y la posición del índice...
+                for(int p = 0; p < offsets.length; p++)
+                {
+                    out.writeLong((offsets[p] < 0) ? pos : offsets[p]);
+                    out.writeInt(start[p + 1] - start[p]);
+                }
+                out.writeLong(pos);
+            }
+        }
+        commit(tmp, file);
+        long bytes = Files.size(file);
+        TSBEvents.endSnapshot(event, file, n, bytes, level != UNCOMPRESSED, c.nanos);
+        return new Result(n, bytes, c.nanos, System.nanoTime() - t0);
+    }
+
+    /*
+     * Graba un bloque comprimido, registrando la posición de la partición si
+     * es su primer bloque. Retorna la posición siguiente al bloque.
+     */
+    private static long writeBlock(DataOutputStream out, byte block[], long offsets[], long pos) throws IOException
+    {
+        int partition = ((block[4] & 0xFF) << 24) | ((block[5] & 0xFF) << 16) | ((block[6] & 0xFF) << 8) | (block[7] & 0xFF);
+        if(offsets[partition] < 0) offsets[partition] = pos;
+        out.write(block);
+        return pos + block.length;
+    }
+
+    /*
+     * Bits de partición para n pares: alrededor de PARTITION_PAIRS pares por
+     * partición, con un máximo de 2^MAX_PARTITION_BITS particiones.
+     */
+    private static int partitionBits(int n)
+    {
+        int bits = 0;
+        while(bits < MAX_PARTITION_BITS && (n >> bits) > PARTITION_PAIRS) bits++;
+        return bits;
+    }
+
+    /*
+     * Un bloque comprimido: pares, partición, tamaño original, tamaño
+     * comprimido y los bytes comprimidos.
+     */
+    private static byte[] deflate(Object keys[], Object values[], int kind, int partition, int from, int to, int level) throws IOException
+    {
+        ByteArrayOutputStream raw = new ByteArrayOutputStream((to - from) * 16);
+        DataOutputStream out = new DataOutputStream(raw);
+        encode(out, keys, values, kind, from, to);
+        out.flush();
+        byte input[] = raw.toByteArray();
+
+        Deflater deflater = new Deflater(level);
+        try
+        {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream block = new ByteArrayOutputStream(input.length / 3 + 64);
+            DataOutputStream header = new DataOutputStream(block);
+            header.writeInt(to - from);
+            header.writeInt(partition);
+            header.writeInt(input.length);
+            header.writeInt(0);
+
+            byte buf[] = new byte[1 << 16];
+            while(!deflater.finished())
+            {
+                int k = deflater.deflate(buf);
+                block.write(buf, 0, k);
+            }
+
+            // completar el tamaño comprimido en la cabecera del bloque...
+            byte result[] = block.toByteArray();
+            int comp_len = result.length - 16;
+            result[12] = (byte) (comp_len >>> 24);
+            result[13] = (byte) (comp_len >>> 16);
+            result[14] = (byte) (comp_len >>> 8);
+            result[15] = (byte) comp_len;
+            return result;
+        }
+        finally
+        {
+            deflater.end();
+        }
+    }
+
+    private static void encode(DataOutputStream out, Object keys[], Object values[], int kind, int from, int to) throws IOException
+    {
+        if(kind == WORDS)
+        {
+            for(int i = from; i < to; i++)
+            {
+                out.writeUTF((String) keys[i]);
+                out.writeInt((Integer) values[i]);
+            }
+        }
+        else
+        {
+            ObjectOutputStream oout = new ObjectOutputStream(out);
+            for(int i = from; i < to; i++)
+            {
+                oout.writeObject(keys[i]);
+                oout.writeObject(values[i]);
+            }
+            oout.flush();
+        }
+    }
+
+    private static <T> T get(Future<T> f) throws IOException
+    {
+        try
+        {
+            return f.get();
+        }
+        catch(InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException("get(): operación interrumpida...", e);
+        }
+        catch(ExecutionException e)
+        {
+            // ForkJoinPool envuelve las excepciones controladas de las tareas...
+            for(Throwable c = e.getCause(); c != null; c = c.getCause())
+            {
+                if(c instanceof IOException) throw (IOException) c;
+            }
+            if(e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw new IOException(e.getCause());
+        }
+    }
+
+    /*
+     * Fuerza tmp a disco y lo renombra como target (en forma atómica, si el
+     * sistema de archivos lo permite).
+     */
+    static void commit(Path tmp, Path target) throws IOException
+    {
+        try(FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE))
+        {
+            ch.force(true);
+        }
+        try
+        {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+        catch(AtomicMoveNotSupportedException e)
+        {
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    //************************ Clases internas.
+
+    /*
+     * La cabecera de un archivo grabado.
+     */
+    static class Header
+    {
+        final int version;
+        final int kind;
+        final int codec;
+        final int bits;
+        final int count;
+
+        Header(int version, int kind, int codec, int bits, int count)
+        {
+            this.version = version;
+            this.kind = kind;
+            this.codec = codec;
+            this.bits = bits;
+            this.count = count;
+        }
+    }
+
+    /*
+     * Receptor de los bloques leídos por readBlocks().
+     */
+    interface BlockSink
+    {
+        void block(int partition, Object keys[], Object values[]) throws IOException;
+    }
+
+    /*
+     * Los pares de un bloque leído.
+     */
+    private static class Block
+    {
+        private final Object keys[];
+        private final Object values[];
+
+        Block(int pairs)
+        {
+            keys = new Object[pairs];
+            values = new Object[pairs];
+        }
+    }
+
+    /*
+     * El contenido capturado de una tabla.
+     */
+    private static class Capture
+    {
+        private final Object keys[];
+        private final Object values[];
+        private final long nanos;
+
+        Capture(Object keys[], Object values[], long nanos)
+        {
+            this.keys = keys;
+            this.values = values;
+            this.nanos = nanos;
+        }
+    }
+
+    /*
+     * El hilo de fondo compartido para las grabaciones (se crea al usarse por
+     * primera vez, y no impide que el programa termine).
+     */
+    private static class Background
+    {
+        private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(r ->
+        {
+            Thread t = new Thread(r, "tsb-snapshot");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * El resultado de una grabación: cantidad de pares, tamaño del archivo y
+     * duración de la captura (el tiempo en que la tabla estuvo ocupada) y de
+     * la grabación.
+     */
+    public static class Result
+    {
+        private final int entries;
+        private final long bytes;
+        private final long capture_nanos;
+        private final long write_nanos;
+
+        Result(int entries, long bytes, long capture_nanos, long write_nanos)
+        {
+            this.entries = entries;
+            this.bytes = bytes;
+            this.capture_nanos = capture_nanos;
+            this.write_nanos = write_nanos;
+        }
+
+        public int getEntries() { return entries; }
+        public long getBytes() { return bytes; }
+        public long getCaptureNanos() { return capture_nanos; }
+        public long getWriteNanos() { return write_nanos; }
+
+        @Override
+        public String toString()
+        {
+            return String.format("%d pares, %d bytes, captura en %.3f ms, grabación en %.3f s",
+                                 entries, bytes, capture_nanos / 1e6, write_nanos / 1e9);
+        }
+    }
+}
@@ -0,0 +1,247 @@
+package clases;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Contadores de operaciones de una tabla (TSB_OAHashtable o TSBHashtable),
+ * publicados como MBean para seguir en vivo su uso desde jconsole o un
+ * recolector JMX: búsquedas (exitosas y fallidas), inserciones de claves
+ * nuevas, reemplazos de valores, eliminaciones, rehash e iteradores creados.
+ *
+ * La instrumentación es opcional: se activa con instrument(nombre) en la
+ * tabla, que crea los contadores y registra el MBean con nombre
+ * "clases:type=<clase de la tabla>,name=<nombre>", y se desactiva con
+ * uninstrument(). Sin instrumentar, cada operación de la tabla sólo agrega
+ * la comparación de un atributo contra null.
+ *
+ * Los contadores son LongAdder, así que incrementarlos es barato aun si la
+ * tabla se usa desde varios hilos (con la sincronización que la tabla
+ * requiera) y se leen desde el hilo de JMX.
+ *
+ * @version Octubre de 2026.
+ */
+public class TSBTableMetrics implements TSBTableMetricsMBean
+{
+    private final String name;
+    private final Map<?, ?> table;
+    private final ObjectName object_name;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder inserts = new LongAdder();
+    private final LongAdder updates = new LongAdder();
+    private final LongAdder removes = new LongAdder();
+    private final LongAdder rehashes = new LongAdder();
+    private final LongAdder iterators = new LongAdder();
+
+    TSBTableMetrics(String name, Map<?, ?> table)
+    {
+        if(name == null || table == null) throw new NullPointerException("TSBTableMetrics(): parámetro null");
+        this.name = name;
+        this.table = table;
+        try
+        {
+            this.object_name = new ObjectName("clases:type=" + table.getClass().getSimpleName()
+                                              + ",name=" + ObjectName.quote(name));
+        }
+        catch(JMException e)
+        {
+            throw new IllegalArgumentException("TSBTableMetrics(): nombre inválido: " + name, e);
+        }
+    }
+
+    /*
+     * Registra el MBean en el servidor de la plataforma.
+     */
+    void register()
+    {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try
+        {
+            server.registerMBean(this, object_name);
+        }
+        catch(JMException e)
+        {
+            throw new IllegalStateException("register(): no se pudo registrar " + object_name + "...", e);
+        }
+    }
+
+    /*
+     * Quita el MBean del servidor de la plataforma (si estaba registrado).
+     */
+    void unregister()
+    {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try
+        {
+            if(server.isRegistered(object_name)) server.unregisterMBean(object_name);
+        }
+        catch(JMException e)
+        {
+            throw new IllegalStateException("unregister(): no se pudo quitar " + object_name + "...", e);
+        }
+    }
+
+    //************************ Registro de operaciones (invocados por la tabla).
+
+    void hit()
+    {
+        hits.increment();
+    }
+
+    void miss()
+    {
+        misses.increment();
+    }
+
+    void insert()
+    {
+        inserts.increment();
+    }
+
+    void update()
+    {
+        updates.increment();
+    }
+
+    void remove()
+    {
+        removes.increment();
+    }
+
+    void rehash()
+    {
+        rehashes.increment();
+    }
+
+    void iterator()
+    {
+        iterators.increment();
+    }
+
+    //************************ Atributos del MBean.
+
+    public ObjectName getObjectName()
+    {
+        return object_name;
+    }
+
+    @Override
+    public String getName()
+    {
+        return name;
+    }
+
+    @Override
+    public String getTableClass()
+    {
+        return table.getClass().getName();
+    }
+
+    /**
+     * Retorna la cantidad de pares de la tabla. Se lee sin sincronización, así
+     * que si la tabla se está modificando en otro hilo el valor puede estar
+     * levemente desactualizado.
+     * @return la cantidad de pares de la tabla.
+     */
+    @Override
+    public int getSize()
+    {
+        return table.size();
+    }
+
+    @Override
+    public long getGets()
+    {
+        return hits.sum() + misses.sum();
+    }
+
+    @Override
+    public long getHits()
+    {
+        return hits.sum();
+    }
+
+    @Override
+    public long getMisses()
+    {
+        return misses.sum();
+    }
+
+    /**
+     * Retorna la fracción de búsquedas exitosas (0 si no hubo búsquedas).
+     * @return hits / gets.
+     */
+    @Override
+    public double getHitRate()
+    {
+        long h = hits.sum();
+        long total = h + misses.sum();
+        return (total == 0) ? 0 : (double) h / total;
+    }
+
+    @Override
+    public long getPuts()
+    {
+        return inserts.sum() + updates.sum();
+    }
+
+    @Override
+    public long getInserts()
+    {
+        return inserts.sum();
+    }
+
+    @Override
+    public long getUpdates()
+    {
+        return updates.sum();
+    }
+
+    @Override
+    public long getRemoves()
+    {
+        return removes.sum();
+    }
+
+    @Override
+    public long getRehashes()
+    {
+        return rehashes.sum();
+    }
+
+    @Override
+    public long getIterators()
+    {
+        return iterators.sum();
+    }
+
+    /**
+     * Pone todos los contadores en cero.
+     */
+    @Override
+    public void reset()
+    {
+        hits.reset();
+        misses.reset();
+        inserts.reset();
+        updates.reset();
+        removes.reset();
+        rehashes.reset();
+        iterators.reset();
+    }
+
+    @Override
+    public String toString()
+    {
+        return String.format("%s: %d pares, %d búsquedas (%.1f%% exitosas), %d inserciones, %d reemplazos, "
+                             + "%d eliminaciones, %d rehash, %d iteradores",
+                             object_name, getSize(), getGets(), 100 * getHitRate(), getInserts(), getUpdates(),
+                             getRemoves(), getRehashes(), getIterators());
+    }
+}
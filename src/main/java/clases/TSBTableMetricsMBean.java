@@ -0,0 +1,39 @@
+package clases;
+
+/**
+ * Interfaz de administración (MBean estándar) de TSBTableMetrics: los
+ * atributos que se ven desde jconsole o desde cualquier cliente JMX para
+ * cada tabla instrumentada.
+ *
+ * @version Octubre de 2026.
+ */
+public interface TSBTableMetricsMBean
+{
+    String getName();
+
+    String getTableClass();
+
+    int getSize();
+
+    long getGets();
+
+    long getHits();
+
+    long getMisses();
+
+    double getHitRate();
+
+    long getPuts();
+
+    long getInserts();
+
+    long getUpdates();
+
+    long getRemoves();
+
+    long getRehashes();
+
+    long getIterators();
+
+    void reset();
+}
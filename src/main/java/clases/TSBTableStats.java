@@ -0,0 +1,203 @@
+package clases;
+
+import java.util.Arrays;
+
+/**
+ * Estado interno de una tabla hash en un momento dado, para evaluar qué tan
+ * bien están distribuidas sus claves: capacidad, cantidad de pares, tumbas,
+ * factor de carga, el histograma de las longitudes de búsqueda y la cantidad
+ * y el tiempo acumulado de los rehash. Lo retornan TSB_OAHashtable.stats() y
+ * TSBHashtable.stats().
+ *
+ * En TSB_OAHashtable, histogram[k] es la cantidad de claves que se
+ * encuentran visitando k casillas (k = 1: la clave está en su casilla
+ * original), y la búsqueda fallida cuesta las casillas visitadas hasta dar
+ * con una abierta. En TSBHashtable, histogram[k] es la cantidad de listas de
+ * desborde con k pares (incluyendo las vacías, en histogram[0]), y las
+ * búsquedas se miden en pares comparados.
+ *
+ * Un hashCode() malo (que asigna el mismo valor a muchas claves, o valores
+ * consecutivos) se nota en una cola larga del histograma, un promedio de
+ * búsqueda alto y bloques (o listas) muy largos aún con poca carga.
+ *
+ * @version Octubre de 2026.
+ */
+public class TSBTableStats
+{
+    private final boolean open_addressing;
+    private final int capacity;
+    private final int count;
+    private final int tombstones;
+    private final float load_factor;
+    private final long histogram[];
+    private final double hit_probes;
+    private final double miss_probes;
+    private final int longest_cluster;
+    private final int rehashes;
+    private final long rehash_nanos;
+
+    TSBTableStats(boolean open_addressing, int capacity, int count, int tombstones, float load_factor,
+                  long histogram[], double hit_probes, double miss_probes, int longest_cluster,
+                  int rehashes, long rehash_nanos)
+    {
+        this.open_addressing = open_addressing;
+        this.capacity = capacity;
+        this.count = count;
+        this.tombstones = tombstones;
+        this.load_factor = load_factor;
+        this.histogram = histogram;
+        this.hit_probes = hit_probes;
+        this.miss_probes = miss_probes;
+        this.longest_cluster = longest_cluster;
+        this.rehashes = rehashes;
+        this.rehash_nanos = rehash_nanos;
+    }
+
+    /**
+     * Indica si las estadísticas son de una tabla con direccionamiento
+     * abierto (TSB_OAHashtable) o con listas de desborde (TSBHashtable).
+     * @return true si la tabla usa direccionamiento abierto.
+     */
+    public boolean isOpenAddressing()
+    {
+        return open_addressing;
+    }
+
+    /**
+     * Retorna el tamaño del arreglo de soporte (casillas o listas).
+     * @return la capacidad de la tabla.
+     */
+    public int getCapacity()
+    {
+        return capacity;
+    }
+
+    public int getCount()
+    {
+        return count;
+    }
+
+    /**
+     * Retorna la cantidad de casillas marcadas como tumba (siempre 0 en
+     * TSBHashtable).
+     * @return la cantidad de tumbas.
+     */
+    public int getTombstones()
+    {
+        return tombstones;
+    }
+
+    /**
+     * Retorna el factor de carga configurado en la tabla.
+     * @return el factor de carga de la tabla.
+     */
+    public float getLoadFactor()
+    {
+        return load_factor;
+    }
+
+    /**
+     * Retorna la carga actual: pares por casilla (o por lista).
+     * @return count / capacity.
+     */
+    public double getLoad()
+    {
+        return (capacity == 0) ? 0 : (double) count / capacity;
+    }
+
+    /**
+     * Retorna la fracción de casillas que no están abiertas (pares más
+     * tumbas), que es la que determina el costo de una búsqueda fallida en
+     * TSB_OAHashtable.
+     * @return (count + tombstones) / capacity.
+     */
+    public double getOccupancy()
+    {
+        return (capacity == 0) ? 0 : (double) (count + tombstones) / capacity;
+    }
+
+    /**
+     * Retorna una copia del histograma de longitudes (ver la descripción de
+     * la clase).
+     * @return el histograma.
+     */
+    public long[] getHistogram()
+    {
+        return histogram.clone();
+    }
+
+    /**
+     * Retorna el costo promedio de buscar una clave presente.
+     * @return casillas visitadas (o pares comparados) en promedio.
+     */
+    public double getMeanHitProbes()
+    {
+        return hit_probes;
+    }
+
+    /**
+     * Retorna el costo esperado de buscar una clave ausente (suponiendo que
+     * su valor de dispersión es uniforme).
+     * @return casillas visitadas (o pares comparados) en promedio.
+     */
+    public double getExpectedMissProbes()
+    {
+        return miss_probes;
+    }
+
+    /**
+     * Retorna la longitud del bloque más largo de casillas consecutivas no
+     * abiertas (en TSBHashtable, la de la lista de desborde más larga).
+     * @return la longitud del bloque (o lista) más largo.
+     */
+    public int getLongestCluster()
+    {
+        return longest_cluster;
+    }
+
+    /**
+     * Retorna la cantidad de rehash que hizo la tabla desde que fue creada.
+     * @return la cantidad de rehash.
+     */
+    public int getRehashCount()
+    {
+        return rehashes;
+    }
+
+    /**
+     * Retorna el tiempo acumulado de todos los rehash de la tabla.
+     * @return el tiempo de rehash, en nanosegundos.
+     */
+    public long getRehashNanos()
+    {
+        return rehash_nanos;
+    }
+
+    /**
+     * Retorna el mayor k tal que histogram[k] > 0.
+     * @return la búsqueda (o lista) más larga.
+     */
+    public int getMaxLength()
+    {
+        for(int k = histogram.length - 1; k > 0; k--)
+        {
+            if(histogram[k] > 0) return k;
+        }
+        return 0;
+    }
+
+    @Override
+    public String toString()
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("capacidad %d, pares %d, tumbas %d, carga %.3f (ocupación %.3f, factor %.2f)%n",
+                                capacity, count, tombstones, getLoad(), getOccupancy(), load_factor));
+        sb.append(String.format("búsqueda exitosa %.3f, fallida %.3f, %s %d%n",
+                                hit_probes, miss_probes, open_addressing ? "bloque más largo" : "lista más larga",
+                                longest_cluster));
+        sb.append(String.format("rehash: %d (%.3f ms)%n", rehashes, rehash_nanos / 1e6));
+        sb.append(open_addressing ? "casillas visitadas: " : "pares por lista: ");
+        sb.append(Arrays.toString(Arrays.copyOf(histogram, getMaxLength() + 1)));
+        return sb.toString();
+    }
+}
@@ -0,0 +1,152 @@
+package clases;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Verificación del resultado guardado de TSB_OAHashtable.topK(): cada cambio
+ * de valor debe invalidarlo, sea con put(), increment(), los métodos por
+ * defecto de Map (replaceAll(), merge(), compute()) o setValue() sobre un
+ * par retornado por un iterador de entrySet() (obtenido antes o después de
+ * la consulta, también en una tabla deserializada). Los pares retornados
+ * por topK() son copias: setValue() sobre ellos se rechaza y no cambia la
+ * tabla. Termina con código 1 si alguna verificación falla (así falla el
+ * build con mvn verify, ver pom.xml).
+ *
+ * Uso: java clases.TSBTopKCheck
+ *
+ * @version Octubre de 2026.
+ */
+public class TSBTopKCheck
+{
+    private static final Comparator<Map.Entry<String, Integer>> BY_VALUE = Map.Entry.comparingByValue();
+
+    private int failures;
+
+    /**
+     * Informa el resultado de una verificación.
+     * @param name la descripción de la verificación.
+     * @param ok true si la verificación pasó.
+     */
+    public void check(String name, boolean ok)
+    {
+        if(!ok) failures++;
+        System.out.printf("%-6s %s%n", ok ? "OK" : "FALLA", name);
+    }
+
+    /**
+     * Ejecuta todas las verificaciones.
+     * @return la cantidad de verificaciones fallidas.
+     * @throws IOException si la tabla no puede serializarse.
+     * @throws ClassNotFoundException si la tabla no puede deserializarse.
+     */
+    public int run() throws IOException, ClassNotFoundException
+    {
+        TSB_OAHashtable<String, Integer> t = table();
+        Iterator<Map.Entry<String, Integer>> it = t.entrySet().iterator();
+        Map.Entry<String, Integer> before = it.next();
+        this.check("primera consulta", top(t).equals("e"));
+
+        before.setValue(100);
+        this.check("setValue() sobre un par obtenido antes de topK()", top(t).equals(before.getKey()));
+
+        Map.Entry<String, Integer> after = find(t, "c");
+        after.setValue(200);
+        this.check("setValue() sobre un par obtenido después de topK()", top(t).equals("c"));
+
+        List<Map.Entry<String, Integer>> result = t.topK(1, BY_VALUE);
+        boolean rejected = false;
+        try
+        {
+            result.get(0).setValue(0);
+        }
+        catch(UnsupportedOperationException e)
+        {
+            rejected = true;
+        }
+        this.check("setValue() sobre un par de topK() se rechaza sin cambiar la tabla",
+                   rejected && t.get("c") == 200 && top(t).equals("c"));
+
+        t.put("a", 300);
+        this.check("put() sobre una clave presente", top(t).equals("a"));
+
+        t.increment("b", 1000);
+        this.check("increment() sobre una clave presente", top(t).equals("b"));
+
+        t.replaceAll((k, v) -> k.equals("d") ? 5000 : v);
+        this.check("replaceAll()", top(t).equals("d"));
+
+        t.merge("e", 6000, Integer::sum);
+        this.check("merge()", top(t).equals("e"));
+
+        t.compute("a", (k, v) -> v + 10000);
+        this.check("compute()", top(t).equals("a"));
+
+        TSB_OAHashtable<String, Integer> copy = deserialize(serialize(t));
+        this.check("consulta sobre la tabla deserializada", top(copy).equals("a"));
+        find(copy, "b").setValue(50000);
+        this.check("setValue() sobre un par de la tabla deserializada", top(copy).equals("b"));
+
+        return failures;
+    }
+
+    // una tabla con los valores 1 a 5 (la clave mayor es "e")...
+    private static TSB_OAHashtable<String, Integer> table()
+    {
+        TSB_OAHashtable<String, Integer> t = new TSB_OAHashtable<>();
+        String keys[] = {"a", "b", "c", "d", "e"};
+        for(int i = 0; i < keys.length; i++) t.put(keys[i], i + 1);
+        return t;
+    }
+
+    private static String top(TSB_OAHashtable<String, Integer> t)
+    {
+        return t.topK(1, BY_VALUE).get(0).getKey();
+    }
+
+    private static Map.Entry<String, Integer> find(TSB_OAHashtable<String, Integer> t, String key)
+    {
+        for(Map.Entry<String, Integer> e : t.entrySet())
+        {
+            if(e.getKey().equals(key)) return e;
+        }
+        throw new IllegalStateException("find(): la clave " + key + " no está en la tabla...");
+    }
+
+    private static byte[] serialize(Object o) throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try(ObjectOutputStream out = new ObjectOutputStream(bytes))
+        {
+            out.writeObject(o);
+        }
+        return bytes.toByteArray();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TSB_OAHashtable<String, Integer> deserialize(byte bytes[]) throws IOException, ClassNotFoundException
+    {
+        try(ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes)))
+        {
+            return (TSB_OAHashtable<String, Integer>) in.readObject();
+        }
+    }
+
+    public static void main(String args[]) throws IOException, ClassNotFoundException
+    {
+        int failures = new TSBTopKCheck().run();
+        if(failures > 0)
+        {
+            System.out.println(failures + " verificaciones fallidas");
+            System.exit(1);
+        }
+        System.out.println("Todas las verificaciones pasaron");
+    }
+}
@@ -0,0 +1,251 @@
+package clases;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Motor de carga de documentos: lee uno o varios archivos de texto y cuenta
+ * en una tabla TSB_OAHashtable<String, Integer> la frecuencia de aparición de
+ * cada palabra (tal como pide el enunciado del trabajo práctico), en una
+ * única pasada por cada archivo.
+ *
+ * Los archivos se leen a través de un FileChannel sobre un buffer directo
+ * que se reutiliza para todos los archivos, y los bytes se decodifican en
+ * forma incremental (con un CharsetDecoder) sobre un CharBuffer también
+ * reutilizado. El texto decodificado pasa por un TSBWordTokenizer, que
+ * descarta la puntuación, los dígitos y las palabras alfanuméricas. Así, la
+ * memoria usada no depende del tamaño de los archivos.
+ *
+ * Un ingester no es thread-safe: cada hilo debe usar el suyo (y su propia
+ * tabla, o bien sincronizar el acceso a ella).
+ *
+ * @version Octubre de 2026.
+ */
+public class TSBWordIngester
+{
+    // tamaño por defecto de los buffers de lectura y decodificación...
+    public static final int DEFAULT_BUFFER_SIZE = 1 << 16;
+
+    // la tabla en la que se cuentan las palabras...
+    private final TSB_OAHashtable<String, Integer> table;
+
+    // el juego de caracteres de los archivos...
+    private final Charset charset;
+
+    // buffers reutilizados entre archivos...
+    private final ByteBuffer bytes;
+    private final CharBuffer chars;
+
+    // el separador de palabras, que cuenta cada palabra en la tabla...
+    private final TSBWordTokenizer tokenizer;
+
+    /**
+     * Crea un ingester que cuenta en la tabla indicada, leyendo los archivos
+     * como UTF-8.
+     * @param table la tabla en la que se contarán las palabras.
+     */
+    public TSBWordIngester(TSB_OAHashtable<String, Integer> table)
+    {
+        this(table, StandardCharsets.UTF_8, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Crea un ingester que cuenta en la tabla indicada, leyendo los archivos
+     * con el juego de caracteres charset y con buffers de bufferSize bytes.
+     * Las secuencias de bytes inválidas para charset se reemplazan (no
+     * interrumpen el proceso). Si bufferSize es menor a 1024 se ajusta a 1024.
+     * @param table la tabla en la que se contarán las palabras.
+     * @param charset el juego de caracteres de los archivos.
+     * @param bufferSize el tamaño de los buffers de lectura.
+     * @throws NullPointerException si table o charset son null.
+     */
+    public TSBWordIngester(TSB_OAHashtable<String, Integer> table, Charset charset, int bufferSize)
+    {
+        if(table == null || charset == null)
+        {
+            throw new NullPointerException("TSBWordIngester(): parámetro null");
+        }
+        if(bufferSize < 1024) bufferSize = 1024;
+
+        this.table = table;
+        this.charset = charset;
+        this.bytes = ByteBuffer.allocateDirect(bufferSize);
+        this.chars = CharBuffer.allocate(bufferSize);
+        this.tokenizer = new TSBWordTokenizer(this::count);
+    }
+
+    /**
+     * Retorna la tabla en la que este ingester cuenta las palabras.
+     * @return la tabla de frecuencias.
+     */
+    public TSB_OAHashtable<String, Integer> getTable()
+    {
+        return table;
+    }
+
+    /**
+     * Procesa los archivos indicados, en orden, sumando a la tabla las
+     * frecuencias de las palabras que contienen.
+     * @param files los archivos a procesar.
+     * @return las estadísticas del proceso (archivos, bytes, palabras, tiempo).
+     * @throws IOException si alguno de los archivos no puede leerse.
+     */
+    public TSBIngestionStats ingest(Path... files) throws IOException
+    {
+        long t0 = System.nanoTime();
+        long w0 = tokenizer.words();
+        long total = 0;
+        for(Path file : files)
+        {
+            total += this.read(file);
+        }
+        long nanos = System.nanoTime() - t0;
+        return new TSBIngestionStats(files.length, total, tokenizer.words() - w0, nanos);
+    }
+
+    /**
+     * Procesa sólo los bytes del archivo file ubicados entre las posiciones 
+     * start (incluida) y end (excluida), sumando a la tabla las frecuencias de
+     * las palabras que contienen. Quien invoque este método debe asegurar que 
+     * start y end caigan en límites de palabras (y de caracteres) del archivo,
+     * como lo hace TSBParallelIngester al dividir archivos grandes.
+     * @param file el archivo a procesar.
+     * @param start la posición del primer byte a procesar.
+     * @param end la posición siguiente al último byte a procesar.
+     * @return las estadísticas del proceso.
+     * @throws IOException si el archivo no puede leerse.
+     */
+    public TSBIngestionStats ingest(Path file, long start, long end) throws IOException
+    {
+        long t0 = System.nanoTime();
+        long w0 = tokenizer.words();
+        long total = this.read(file, start, end);
+        long nanos = System.nanoTime() - t0;
+        return new TSBIngestionStats(1, total, tokenizer.words() - w0, nanos);
+    }
+
+    /*
+     * Lee un archivo completo. Retorna la cantidad de bytes leídos.
+     */
+    private long read(Path file) throws IOException
+    {
+        return this.read(file, 0, Long.MAX_VALUE);
+    }
+
+    /*
+     * Lee los bytes [start, end) de un archivo, decodificándolos de a bloques 
+     * y pasando cada bloque al separador de palabras. Retorna la cantidad de
+     * bytes leídos.
+     */
+    private long read(Path file, long start, long end) throws IOException
+    {
+        Object event = TSBEvents.beginIngestion();
+        long w0 = tokenizer.words();
+        CharsetDecoder decoder = charset.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+        long total = 0;
+        long remaining = end - start;
+        bytes.clear();
+        chars.clear();
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            channel.position(start);
+            boolean eof = (remaining <= 0);
+            while(!eof)
+            {
+                // no leer más allá del final del rango pedido...
+                if(bytes.remaining() > remaining) bytes.limit(bytes.position() + (int) remaining);
+                
+                int n = channel.read(bytes);
+                if(n < 0) eof = true;
+                else
+                {
+                    total += n;
+                    remaining -= n;
+                    if(remaining <= 0) eof = true;
+                }
+
+                bytes.flip();
+                this.decode(decoder, eof);
+                bytes.compact();
+            }
+
+            // vaciar el estado interno del decodificador...
+            while(decoder.flush(chars).isOverflow()) this.drain();
+            this.drain();
+        }
+        tokenizer.finish();
+        TSBEvents.endIngestion(event, "carga", file, total, tokenizer.words() - w0);
+        return total;
+    }
+
+    /*
+     * Decodifica todo lo que pueda del buffer de bytes, entregando al
+     * separador de palabras cada bloque de caracteres que se complete.
+     */
+    private void decode(CharsetDecoder decoder, boolean eof)
+    {
+        while(true)
+        {
+            CoderResult result = decoder.decode(bytes, chars, eof);
+            this.drain();
+            if(result.isUnderflow()) return;
+        }
+    }
+
+    private void drain()
+    {
+        chars.flip();
+        tokenizer.feed(chars);
+        chars.clear();
+    }
+
+    /*
+     * Cuenta una ocurrencia de la palabra buf[off .. off+len-1]. La palabra se
+     * busca en la tabla directamente sobre el arreglo: sólo se crea un String
+     * la primera vez que aparece.
+     */
+    private void count(char buf[], int off, int len)
+    {
+        table.increment(buf, off, len, 1);
+    }
+
+    /**
+     * Procesa los archivos indicados como argumentos e informa el rendimiento
+     * y la cantidad de palabras distintas encontradas.
+     * Uso: java clases.TSBWordIngester [-charset nombre] archivo...
+     * @param args los archivos a procesar (y opcionalmente el charset).
+     * @throws IOException si alguno de los archivos no puede leerse.
+     */
+    public static void main(String args[]) throws IOException
+    {
+        Charset charset = StandardCharsets.UTF_8;
+        int first = 0;
+        if(args.length >= 2 && args[0].equals("-charset"))
+        {
+            charset = Charset.forName(args[1]);
+            first = 2;
+        }
+
+        Path files[] = new Path[args.length - first];
+        for(int i = first; i < args.length; i++) files[i - first] = Paths.get(args[i]);
+
+        TSB_OAHashtable<String, Integer> table = new TSB_OAHashtable<>();
+        TSBWordIngester ingester = new TSBWordIngester(table, charset, DEFAULT_BUFFER_SIZE);
+        TSBIngestionStats stats = ingester.ingest(files);
+        System.out.println(stats);
+        System.out.println("Palabras distintas: " + table.size());
+    }
+}
@@ -0,0 +1,331 @@
+package clases;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StreamCorruptedException;
+import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Registro de cambios de sólo agregado (append-only) para la tabla de
+ * frecuencias: cada actualización se graba al final del archivo como una
+ * transacción con registros (palabra, incremento), en lugar de volver a
+ * serializar la tabla completa. Las escrituras son siempre secuenciales.
+ *
+ * Cada transacción tiene un número de secuencia, las líneas de manifiesto de
+ * los documentos que la originaron, los pares (palabra, incremento) y un
+ * CRC32 de todo su contenido. Si el programa se interrumpe mientras se
+ * graba una transacción, al volver a abrir el registro esa transacción
+ * incompleta (o dañada) se descarta y el archivo se trunca en el final de la
+ * última transacción completa: nunca se aplica una transacción a medias. Un
+ * daño antes de la última transacción no puede ser una grabación
+ * interrumpida, así que no se descarta nada: replay() falla y el archivo
+ * queda intacto.
+ *
+ * @version Octubre de 2026.
+ */
+public class TSBWordLog implements Closeable
+{
+    /**
+     * Receptor de las transacciones leídas por replay().
+     */
+    public interface Replay
+    {
+        void transaction(long seq, List<String> documents, TSB_OAHashtable<String, Integer> counts) throws IOException;
+    }
+
+    private static final int FILE_MAGIC = 0x5453424C;   // "TSBL"
+    private static final int TX_MAGIC = 0x54534254;     // "TSBT"
+    private static final int HEADER = 4;
+    private static final int TX_HEADER = 4 + 8 + 4;
+
+    private final Path file;
+    private final FileChannel channel;
+
+    // posición siguiente a la última transacción completa...
+    private long end;
+    private int transactions;
+
+    /**
+     * Abre (o crea, si no existe) el registro en el archivo indicado.
+     * @param file el archivo del registro.
+     * @throws IOException si el archivo no puede abrirse o no es un registro.
+     */
+    public TSBWordLog(Path file) throws IOException
+    {
+        if(file == null) throw new NullPointerException("TSBWordLog(): parámetro null");
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try
+        {
+            if(channel.size() < HEADER) this.reset();
+            else
+            {
+                ByteBuffer h = ByteBuffer.allocate(HEADER);
+                channel.read(h, 0);
+                h.flip();
+                if(h.getInt() != FILE_MAGIC) throw new StreamCorruptedException("TSBWordLog(): " + file + " no es un registro válido...");
+                this.end = HEADER;
+            }
+        }
+        catch(IOException | RuntimeException e)
+        {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Lee todas las transacciones completas del registro, en orden, y entrega
+     * al receptor las de número de secuencia mayor a afterSeq. Si la última
+     * transacción del archivo está incompleta o dañada (una grabación
+     * interrumpida: la transacción llega hasta el final del archivo), se
+     * descarta y el archivo se trunca al final de la anterior. Un daño en
+     * cualquier otro lugar no se corrige: se lanza StreamCorruptedException
+     * y el archivo queda como estaba (las transacciones anteriores al daño
+     * ya fueron entregadas al receptor). Debe invocarse al abrir el
+     * registro, antes de agregar transacciones.
+     * @param afterSeq el número de la última transacción ya aplicada.
+     * @param replay el receptor de las transacciones.
+     * @return el número de la última transacción completa (o afterSeq si no
+     *         hay ninguna posterior).
+     * @throws StreamCorruptedException si hay una transacción dañada que no
+     *         es la última del archivo.
+     * @throws IOException si el archivo no puede leerse o el receptor falla.
+     */
+    public long replay(long afterSeq, Replay replay) throws IOException
+    {
+        long last = afterSeq;
+        long pos = HEADER;
+        long size = channel.size();
+        transactions = 0;
+        InputStream raw = Channels.newInputStream(channel.position(pos));
+        DataInputStream in = new DataInputStream(new BufferedInputStream(raw, 1 << 16));
+        while(pos < size)
+        {
+            // una cabecera incompleta sólo puede ser la cola del archivo...
+            if(size - pos < TX_HEADER) break;
+            if(in.readInt() != TX_MAGIC) throw corrupted(pos, "marca de transacción inválida");
+            long seq = in.readLong();
+            int len = in.readInt();
+            if(len < 0) throw corrupted(pos, "longitud inválida");
+
+            // una transacción que pasa el final del archivo quedó incompleta,
+            // salvo que la longitud esté dañada y haya otras después...
+            long next = pos + TX_HEADER + len + 8;
+            if(next > size)
+            {
+                if(this.transactionAfter(pos + TX_HEADER, size)) throw corrupted(pos, "longitud inválida");
+                break;
+            }
+
+            byte payload[] = new byte[len];
+            in.readFully(payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload, 0, len);
+            if(in.readLong() != crc.getValue())
+            {
+                // ... y una dañada sólo se descarta si es la última
+                if(next == size) break;
+                throw corrupted(pos, "CRC inválido");
+            }
+
+            if(seq > afterSeq)
+            {
+                try
+                {
+                    this.decode(seq, payload, replay);
+                }
+                catch(EOFException | UTFDataFormatException e)
+                {
+                    throw corrupted(pos, "contenido inválido");
+                }
+                last = Math.max(last, seq);
+            }
+            pos = next;
+            transactions++;
+        }
+
+        // descartar la cola incompleta, si la hay...
+        end = pos;
+        if(end < size)
+        {
+            channel.truncate(end);
+            channel.force(true);
+        }
+        return last;
+    }
+
+    /**
+     * Agrega al final del registro una transacción, y la fuerza a disco antes
+     * de retornar.
+     * @param seq el número de secuencia de la transacción.
+     * @param documents las líneas de manifiesto de los documentos procesados.
+     * @param counts los incrementos de cada palabra.
+     * @return el tamaño del registro luego de agregar la transacción.
+     * @throws IOException si la transacción no puede grabarse (en ese caso el
+     *         registro queda como estaba).
+     */
+    public long append(long seq, List<String> documents, TSB_OAHashtable<String, Integer> counts) throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.max(64, counts.size() * 16));
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(documents.size());
+        for(String d : documents) out.writeUTF(d);
+        out.writeInt(counts.size());
+        for(Map.Entry<String, Integer> e : counts.entrySet())
+        {
+            out.writeUTF(e.getKey());
+            out.writeInt(e.getValue());
+        }
+        out.flush();
+
+        byte payload[] = bytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+
+        ByteBuffer header = ByteBuffer.allocate(TX_HEADER);
+        header.putInt(TX_MAGIC).putLong(seq).putInt(payload.length).flip();
+        ByteBuffer trailer = ByteBuffer.allocate(8);
+        trailer.putLong(crc.getValue()).flip();
+
+        try
+        {
+            long pos = end;
+            for(ByteBuffer b : new ByteBuffer[] { header, ByteBuffer.wrap(payload), trailer })
+            {
+                while(b.hasRemaining()) pos += channel.write(b, pos);
+            }
+            channel.force(false);
+            end = pos;
+            transactions++;
+        }
+        catch(IOException e)
+        {
+            // no dejar una transacción a medias...
+            channel.truncate(end);
+            throw e;
+        }
+        return end;
+    }
+
+    /**
+     * Vacía el registro (por ejemplo, luego de grabar una tabla que incluye
+     * todas sus transacciones).
+     * @throws IOException si el archivo no puede modificarse.
+     */
+    public void reset() throws IOException
+    {
+        channel.truncate(0);
+        ByteBuffer h = ByteBuffer.allocate(HEADER);
+        h.putInt(FILE_MAGIC).flip();
+        while(h.hasRemaining()) channel.write(h, HEADER - h.remaining());
+        channel.force(true);
+        end = HEADER;
+        transactions = 0;
+    }
+
+    /**
+     * Retorna el tamaño en bytes del registro (hasta la última transacción
+     * completa).
+     * @return el tamaño del registro.
+     */
+    public long size()
+    {
+        return end;
+    }
+
+    /**
+     * Retorna la cantidad de transacciones completas del registro.
+     * @return la cantidad de transacciones.
+     */
+    public int transactions()
+    {
+        return transactions;
+    }
+
+    public Path getFile()
+    {
+        return file;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        channel.close();
+    }
+
+    /*
+     * Busca, entre from y size, una transacción completa con su CRC válido.
+     * Sólo se usa al encontrar una transacción que pasa el final del archivo,
+     * para distinguir una grabación interrumpida de una longitud dañada.
+     */
+    private boolean transactionAfter(long from, long size) throws IOException
+    {
+        ByteBuffer b = ByteBuffer.allocate(1 << 16);
+        long at = from;
+        while(at + TX_HEADER + 8 <= size)
+        {
+            b.clear();
+            while(b.hasRemaining() && channel.read(b, at + b.position()) > 0) { }
+            b.flip();
+            for(int i = 0; i + 4 <= b.limit(); i++)
+            {
+                if(b.getInt(i) == TX_MAGIC && this.isTransaction(at + i, size)) return true;
+            }
+            at += Math.max(1, b.limit() - 3);
+        }
+        return false;
+    }
+
+    private boolean isTransaction(long pos, long size) throws IOException
+    {
+        if(pos + TX_HEADER + 8 > size) return false;
+        ByteBuffer h = ByteBuffer.allocate(TX_HEADER);
+        while(h.hasRemaining() && channel.read(h, pos + h.position()) > 0) { }
+        int len = h.getInt(12);
+        if(len < 0 || pos + TX_HEADER + len + 8 > size) return false;
+
+        ByteBuffer payload = ByteBuffer.allocate(len + 8);
+        while(payload.hasRemaining() && channel.read(payload, pos + TX_HEADER + payload.position()) > 0) { }
+        CRC32 crc = new CRC32();
+        crc.update(payload.array(), 0, len);
+        return payload.getLong(len) == crc.getValue();
+    }
+
+    private StreamCorruptedException corrupted(long pos, String what)
+    {
+        return new StreamCorruptedException("replay(): " + file + ": " + what + " en la posición " + pos + "...");
+    }
+
+    private void decode(long seq, byte payload[], Replay replay) throws IOException
+    {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        int n = in.readInt();
+        List<String> documents = new ArrayList<>(n);
+        for(int i = 0; i < n; i++) documents.add(in.readUTF());
+        n = in.readInt();
+        TSB_OAHashtable<String, Integer> counts = new TSB_OAHashtable<>(Math.max(11, (int) (n / 0.5f) + 1));
+        for(int i = 0; i < n; i++)
+        {
+            String word = in.readUTF();
+            counts.put(word, in.readInt());
+        }
+        replay.transaction(seq, documents, counts);
+    }
+}
@@ -0,0 +1,430 @@
+package clases;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Almacenamiento persistente de la tabla de frecuencias de palabras, con
+ * carga incremental de documentos (requerimientos 3 y 5 del enunciado).
+ *
+ * El almacenamiento es un directorio con estos archivos:
+ *
+ * - tabla.ser: la tabla completa, grabada por serialización.
+ * - manifest.txt: los documentos ya procesados (ruta, tamaño, fecha de
+ *   modificación y hash SHA-256 del contenido), uno por línea.
+ * - tabla.log: un registro de sólo agregado (ver TSBWordLog) con una
+ *   transacción por cada invocación a addDocuments() posterior a la última
+ *   compactación: los documentos procesados y los pares (palabra,
+ *   incremento) que aportaron (sólo esas palabras, no la tabla).
+ *
+ * addDocuments() saltea los documentos ya procesados (por ruta, tamaño y
+ * fecha, o por tener el mismo contenido que otro ya procesado) y agrega al
+ * final del registro una transacción sólo con lo nuevo, en lugar de volver a
+ * serializar toda la tabla. La tabla no guarda qué palabras aportó cada
+ * documento, así que no puede descontar las de un documento que cambió: si
+ * un documento ya procesado tiene otro contenido, addDocuments() lo rechaza
+ * (sin procesar ninguno) en lugar de contar sus palabras dos veces. Al abrir el almacenamiento se carga tabla.ser y
+ * se vuelven a aplicar las transacciones del registro. compact() (automático
+ * cuando el registro supera cierto tamaño) vuelve a grabar la tabla y el
+ * manifiesto completos y vacía el registro.
+ *
+ * tabla.ser y manifest.txt se graban primero con otro nombre y luego se
+ * renombran, y ambos registran el número de la última transacción que
+ * incluyen; el registro descarta al abrirse una transacción incompleta. Si
+ * el programa se interrumpe en cualquier punto, al volver a abrir el
+ * almacenamiento ningún documento se pierde ni se cuenta dos veces, y no
+ * hace falta volver a procesar los documentos.
+ *
+ * @version Octubre de 2026.
+ */
+public class TSBWordStore implements Closeable
+{
+    // tamaño del registro a partir del cual addDocuments() compacta...
+    public static final long DEFAULT_COMPACT_BYTES = 64L << 20;
+
+    private static final String SNAPSHOT = "tabla.ser";
+    private static final String MANIFEST = "manifest.txt";
+    private static final String LOG = "tabla.log";
+
+    private final Path dir;
+    private final long compact_bytes;
+    private final TSB_OAHashtable<String, Integer> table;
+    private TSBWordLog log;
+
+    // documentos procesados, por ruta y por hash de su contenido...
+    private final Map<String, Document> by_path = new HashMap<>();
+    private final Set<String> digests = new HashSet<>();
+
+    // transacciones incluidas en tabla.ser y manifest.txt, y la última...
+    private long snapshot_seq;
+    private long manifest_seq;
+    private long last_seq;
+
+    private TSBWordStore(Path dir, long compactBytes, TSB_OAHashtable<String, Integer> table)
+    {
+        this.dir = dir;
+        this.compact_bytes = compactBytes;
+        this.table = table;
+    }
+
+    /**
+     * Abre (o crea, si no existe) el almacenamiento en el directorio
+     * indicado, cargando la tabla y el manifiesto, y volviendo a aplicar las
+     * transacciones del registro.
+     * @param dir el directorio del almacenamiento.
+     * @return el almacenamiento abierto.
+     * @throws IOException si el almacenamiento no puede leerse.
+     */
+    public static TSBWordStore open(Path dir) throws IOException
+    {
+        return open(dir, DEFAULT_COMPACT_BYTES);
+    }
+
+    /**
+     * Abre (o crea, si no existe) el almacenamiento en el directorio
+     * indicado, compactando automáticamente cuando el registro supera los
+     * compactBytes bytes (si es menor a 1, nunca se compacta en forma
+     * automática).
+     * @param dir el directorio del almacenamiento.
+     * @param compactBytes el tamaño del registro que dispara la compactación.
+     * @return el almacenamiento abierto.
+     * @throws IOException si el almacenamiento no puede leerse.
+     */
+    public static TSBWordStore open(Path dir, long compactBytes) throws IOException
+    {
+        if(dir == null) throw new NullPointerException("open(): parámetro null");
+        Files.createDirectories(dir);
+
+        TSB_OAHashtable<String, Integer> table = new TSB_OAHashtable<>();
+        long snapshot_seq = 0;
+        Path snapshot = dir.resolve(SNAPSHOT);
+        if(Files.exists(snapshot))
+        {
+            try(ObjectInputStream in = new ObjectInputStream(new BufferedInputStream(Files.newInputStream(snapshot))))
+            {
+                snapshot_seq = in.readLong();
+                table = readTable(in);
+            }
+        }
+
+        TSBWordStore store = new TSBWordStore(dir, compactBytes, table);
+        store.snapshot_seq = snapshot_seq;
+        store.readManifest();
+
+        // volver a aplicar las transacciones posteriores a la tabla y al
+        // manifiesto (una interrupción puede dejarlos en distintos puntos)...
+        store.log = new TSBWordLog(dir.resolve(LOG));
+        try
+        {
+            long after = Math.min(snapshot_seq, store.manifest_seq);
+            long last = store.log.replay(after, (seq, documents, counts) ->
+            {
+                if(seq > store.manifest_seq)
+                {
+                    for(String line : documents) store.register(Document.parse(line));
+                }
+                if(seq > store.snapshot_seq) TSBParallelIngester.merge(store.table, counts);
+            });
+            store.last_seq = Math.max(last, Math.max(snapshot_seq, store.manifest_seq));
+        }
+        catch(IOException | RuntimeException e)
+        {
+            store.log.close();
+            throw e;
+        }
+        return store;
+    }
+
+    /**
+     * Retorna la tabla de frecuencias. La tabla no debe modificarse
+     * directamente: los cambios que no pasen por addDocuments() no se graban.
+     * @return la tabla de frecuencias.
+     */
+    public TSB_OAHashtable<String, Integer> getTable()
+    {
+        return table;
+    }
+
+    /**
+     * Retorna la cantidad de documentos procesados.
+     * @return la cantidad de documentos registrados en el manifiesto.
+     */
+    public int documents()
+    {
+        return by_path.size();
+    }
+
+    /**
+     * Retorna la cantidad de transacciones del registro (grabadas desde la
+     * última compactación).
+     * @return la cantidad de transacciones pendientes de compactar.
+     */
+    public int pendingTransactions()
+    {
+        return log.transactions();
+    }
+
+    /**
+     * Retorna el tamaño en bytes del registro de transacciones.
+     * @return el tamaño del registro.
+     */
+    public long logBytes()
+    {
+        return log.size();
+    }
+
+    /**
+     * Procesa los documentos indicados que todavía no hayan sido procesados,
+     * suma a la tabla las frecuencias de sus palabras y graba sólo esos
+     * cambios. Un documento se considera ya procesado si coinciden su ruta,
+     * su tamaño y su fecha de modificación con los de uno registrado, o si
+     * su contenido es idéntico (mismo SHA-256) al de uno registrado.
+     * @param files los documentos a procesar.
+     * @return las estadísticas del proceso de los documentos nuevos.
+     * @throws IOException si algún documento no puede leerse o la transacción
+     *         no puede grabarse (en ese caso la tabla no se modifica).
+     * @throws IllegalArgumentException si el contenido de algún documento ya
+     *         procesado (con la misma ruta) cambió; en ese caso no se procesa
+     *         ningún documento.
+     */
+    public TSBIngestionStats addDocuments(Path... files) throws IOException
+    {
+        long t0 = System.nanoTime();
+        List<Document> added = new ArrayList<>();
+        List<Path> pending = new ArrayList<>();
+        Set<String> batch_digests = new HashSet<>();
+        for(Path file : files)
+        {
+            String path = file.toAbsolutePath().normalize().toString();
+            long size = Files.size(file);
+            long mtime = Files.getLastModifiedTime(file).toMillis();
+            Document old = by_path.get(path);
+            if(old != null && old.size == size && old.mtime == mtime) continue;
+
+            String digest = sha256(file);
+            if(old != null && !old.digest.equals(digest))
+            {
+                throw new IllegalArgumentException("addDocuments(): " + path + " cambió desde que fue procesado...");
+            }
+            if(digests.contains(digest) || !batch_digests.add(digest)) continue;
+            added.add(new Document(path, size, mtime, digest));
+            pending.add(file);
+        }
+        if(added.isEmpty()) return new TSBIngestionStats(0, 0, 0, System.nanoTime() - t0);
+
+        // contar los documentos nuevos aparte, y grabar sólo eso...
+        TSB_OAHashtable<String, Integer> delta = new TSB_OAHashtable<>();
+        TSBIngestionStats s = new TSBWordIngester(delta).ingest(pending.toArray(new Path[0]));
+        List<String> lines = new ArrayList<>(added.size());
+        for(Document d : added) lines.add(d.toString());
+        log.append(last_seq + 1, lines, delta);
+        last_seq++;
+
+        TSBParallelIngester.merge(table, delta);
+        for(Document d : added) this.register(d);
+
+        if(compact_bytes > 0 && log.size() >= compact_bytes) this.compact();
+        return new TSBIngestionStats(s.getFiles(), s.getBytes(), s.getWords(), System.nanoTime() - t0);
+    }
+
+    /**
+     * Graba la tabla y el manifiesto completos, y vacía el registro de
+     * transacciones (que quedan incluidas en ellos).
+     * @throws IOException si la tabla o el manifiesto no pueden grabarse.
+     */
+    public void compact() throws IOException
+    {
+        Path tmp = dir.resolve(SNAPSHOT + ".tmp");
+        try(ObjectOutputStream out = new ObjectOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp))))
+        {
+            out.writeLong(last_seq);
+            out.writeObject(table);
+        }
+        TSBSnapshot.commit(tmp, dir.resolve(SNAPSHOT));
+        snapshot_seq = last_seq;
+
+        this.writeManifest();
+        log.reset();
+    }
+
+    /**
+     * Cierra el registro de transacciones. Los cambios ya están grabados: no
+     * hace falta compactar antes de cerrar.
+     * @throws IOException si el registro no puede cerrarse.
+     */
+    @Override
+    public void close() throws IOException
+    {
+        log.close();
+    }
+
+    //************************ Métodos privados.
+
+    private void register(Document d)
+    {
+        by_path.put(d.path, d);
+        digests.add(d.digest);
+    }
+
+    /*
+     * Lee manifest.txt: una primera línea "# seq N" y luego una línea por
+     * documento, con sus campos separados por tabuladores.
+     */
+    private void readManifest() throws IOException
+    {
+        Path manifest = dir.resolve(MANIFEST);
+        if(!Files.exists(manifest)) return;
+        try(BufferedReader in = Files.newBufferedReader(manifest, StandardCharsets.UTF_8))
+        {
+            String line = in.readLine();
+            if(line == null || !line.startsWith("# seq ")) throw new StreamCorruptedException("readManifest(): " + manifest + " no es un manifiesto válido...");
+            manifest_seq = Long.parseLong(line.substring(6).trim());
+            while((line = in.readLine()) != null)
+            {
+                if(line.isEmpty()) continue;
+                this.register(Document.parse(line));
+            }
+        }
+    }
+
+    private void writeManifest() throws IOException
+    {
+        Path tmp = dir.resolve(MANIFEST + ".tmp");
+        try(BufferedWriter out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8))
+        {
+            out.write("# seq " + last_seq);
+            out.newLine();
+            for(Document d : by_path.values())
+            {
+                out.write(d.toString());
+                out.newLine();
+            }
+        }
+        TSBSnapshot.commit(tmp, dir.resolve(MANIFEST));
+        manifest_seq = last_seq;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static TSB_OAHashtable<String, Integer> readTable(ObjectInputStream in) throws IOException
+    {
+        try
+        {
+            return (TSB_OAHashtable<String, Integer>) in.readObject();
+        }
+        catch(ClassNotFoundException | ClassCastException e)
+        {
+            throw new StreamCorruptedException("readTable(): la tabla grabada no es válida...");
+        }
+    }
+
+    private static String sha256(Path file) throws IOException
+    {
+        MessageDigest md;
+        try
+        {
+            md = MessageDigest.getInstance("SHA-256");
+        }
+        catch(NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException("sha256(): SHA-256 no disponible...", e);
+        }
+
+        byte buf[] = new byte[1 << 16];
+        try(InputStream in = Files.newInputStream(file))
+        {
+            int n;
+            while((n = in.read(buf)) > 0) md.update(buf, 0, n);
+        }
+
+        StringBuilder sb = new StringBuilder(64);
+        for(byte b : md.digest()) sb.append(String.format("%02x", b & 0xFF));
+        return sb.toString();
+    }
+
+    /*
+     * Un documento registrado en el manifiesto.
+     */
+    private static class Document
+    {
+        private final String path;
+        private final long size;
+        private final long mtime;
+        private final String digest;
+
+        Document(String path, long size, long mtime, String digest)
+        {
+            this.path = path;
+            this.size = size;
+            this.mtime = mtime;
+            this.digest = digest;
+        }
+
+        /*
+         * Una línea del manifiesto: hash, tamaño, fecha y ruta, separados por
+         * tabuladores.
+         */
+        static Document parse(String line) throws IOException
+        {
+            String f[] = line.split("\t", 4);
+            try
+            {
+                if(f.length == 4) return new Document(f[3], Long.parseLong(f[1]), Long.parseLong(f[2]), f[0]);
+            }
+            catch(NumberFormatException e)
+            {
+                // se informa abajo...
+            }
+            throw new StreamCorruptedException("parse(): línea de manifiesto inválida...");
+        }
+
+        @Override
+        public String toString()
+        {
+            return digest + "\t" + size + "\t" + mtime + "\t" + path;
+        }
+    }
+
+    /**
+     * Agrega al almacenamiento los documentos indicados.
+     * Uso: java clases.TSBWordStore directorio archivo...
+     * @param args el directorio del almacenamiento y los documentos.
+     * @throws IOException si el almacenamiento o algún documento no pueden
+     *         leerse o grabarse.
+     */
+    public static void main(String args[]) throws IOException
+    {
+        long t0 = System.nanoTime();
+        try(TSBWordStore store = open(Paths.get(args[0])))
+        {
+            System.out.printf("Almacenamiento abierto en %.3f s: %d palabras distintas, %d documentos, %d transacciones%n",
+                              (System.nanoTime() - t0) / 1e9, store.getTable().size(),
+                              store.documents(), store.pendingTransactions());
+
+            Path files[] = new Path[args.length - 1];
+            for(int i = 1; i < args.length; i++) files[i - 1] = Paths.get(args[i]);
+            System.out.println("Nuevos: " + store.addDocuments(files));
+            System.out.println("Palabras distintas: " + store.getTable().size() + " - documentos: " + store.documents());
+            System.out.println("Más frecuentes: " + store.getTable().topK(10, Map.Entry.comparingByValue()));
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package clases;
+
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Stream;
+
+/**
+ * Verificación de la carga incremental de TSBWordStore: un documento ya
+ * procesado no se vuelve a contar (aunque cambie su fecha, o aparezca con
+ * otra ruta), y un documento ya procesado cuyo contenido cambió se rechaza
+ * sin modificar la tabla ni el manifiesto, también luego de cerrar y volver
+ * a abrir el almacenamiento. Verifica también la recuperación del registro
+ * de transacciones (TSBWordLog): una transacción final incompleta o dañada
+ * se descarta, y un daño antes de la última transacción hace fallar
+ * replay() sin modificar el archivo. Termina con código 1 si alguna
+ * verificación falla (así falla el build con mvn verify, ver pom.xml).
+ *
+ * Uso: java clases.TSBWordStoreCheck
+ *
+ * @version Octubre de 2026.
+ */
+public class TSBWordStoreCheck
+{
+    private int failures;
+
+    /**
+     * Informa el resultado de una verificación.
+     * @param name la descripción de la verificación.
+     * @param ok true si la verificación pasó.
+     */
+    public void check(String name, boolean ok)
+    {
+        if(!ok) failures++;
+        System.out.printf("%-6s %s%n", ok ? "OK" : "FALLA", name);
+    }
+
+    /**
+     * Ejecuta todas las verificaciones en un directorio temporal (que se
+     * borra al terminar).
+     * @return la cantidad de verificaciones fallidas.
+     * @throws IOException si los archivos de prueba no pueden grabarse.
+     */
+    public int run() throws IOException
+    {
+        Path dir = Files.createTempDirectory("tsb-almacen");
+        try
+        {
+            Path store_dir = dir.resolve("almacen");
+            Path doc = dir.resolve("doc.txt");
+            Path copy = dir.resolve("copia.txt");
+            Files.write(doc, "uno dos dos\n".getBytes(StandardCharsets.UTF_8));
+
+            try(TSBWordStore store = TSBWordStore.open(store_dir))
+            {
+                store.addDocuments(doc);
+                this.check("primera carga", counts(store, 1, 2, null));
+
+                store.addDocuments(doc);
+                this.check("el mismo documento no se vuelve a contar", counts(store, 1, 2, null));
+
+                Files.setLastModifiedTime(doc, FileTime.fromMillis(Files.getLastModifiedTime(doc).toMillis() + 60_000));
+                store.addDocuments(doc);
+                this.check("otra fecha con el mismo contenido no se vuelve a contar", counts(store, 1, 2, null));
+
+                Files.write(copy, "uno dos dos\n".getBytes(StandardCharsets.UTF_8));
+                store.addDocuments(copy);
+                this.check("el mismo contenido con otra ruta no se vuelve a contar",
+                           counts(store, 1, 2, null) && store.documents() == 1);
+
+                Files.write(doc, "uno dos dos tres\n".getBytes(StandardCharsets.UTF_8));
+                boolean rejected = false;
+                try
+                {
+                    store.addDocuments(doc);
+                }
+                catch(IllegalArgumentException e)
+                {
+                    rejected = true;
+                }
+                this.check("un documento procesado que cambió se rechaza", rejected);
+                this.check("el rechazo no modifica la tabla ni el manifiesto",
+                           counts(store, 1, 2, null) && store.documents() == 1 && store.pendingTransactions() == 1);
+            }
+
+            try(TSBWordStore store = TSBWordStore.open(store_dir))
+            {
+                this.check("al volver a abrir, cada palabra se cuenta una vez",
+                           counts(store, 1, 2, null) && store.documents() == 1);
+            }
+
+            this.checkLog(dir.resolve("registro.log"));
+        }
+        finally
+        {
+            try(Stream<Path> files = Files.walk(dir))
+            {
+                files.sorted((a, b) -> b.compareTo(a)).forEach(p -> p.toFile().delete());
+            }
+        }
+        return failures;
+    }
+
+    /*
+     * Graba un registro con tres transacciones, lo daña de distintas formas
+     * y verifica lo que hace replay() al volver a abrirlo.
+     */
+    private void checkLog(Path file) throws IOException
+    {
+        TSB_OAHashtable<String, Integer> counts = new TSB_OAHashtable<>();
+        counts.put("uno", 1);
+        long ends[] = new long[4];
+        try(TSBWordLog log = new TSBWordLog(file))
+        {
+            ends[0] = log.size();
+            for(int seq = 1; seq <= 3; seq++) ends[seq] = log.append(seq, Collections.<String>emptyList(), counts);
+        }
+        byte intact[] = Files.readAllBytes(file);
+
+        // grabación interrumpida: la última transacción quedó por la mitad...
+        Files.write(file, Arrays.copyOf(intact, (int) (ends[2] + ends[3]) / 2));
+        this.check("una transacción final incompleta se descarta",
+                   replay(file) == 2 && Files.size(file) == ends[2]);
+
+        // la última transacción completa pero con un byte cambiado...
+        byte bytes[] = intact.clone();
+        bytes[(int) ends[3] - 9] ^= 1;
+        Files.write(file, bytes);
+        this.check("una transacción final dañada se descarta",
+                   replay(file) == 2 && Files.size(file) == ends[2]);
+
+        // un byte cambiado en la primera transacción (el daño no está al final)...
+        for(int at : new int[] { (int) ends[0], (int) ends[0] + 13, (int) ends[1] - 9 })
+        {
+            bytes = intact.clone();
+            bytes[at] ^= 1;
+            Files.write(file, bytes);
+            this.check("un daño en la posición " + at + " hace fallar replay() sin modificar el registro",
+                       replay(file) == -1 && Arrays.equals(Files.readAllBytes(file), bytes));
+        }
+    }
+
+    // la última transacción aplicada, o -1 si replay() detecta un daño...
+    private static long replay(Path file) throws IOException
+    {
+        try(TSBWordLog log = new TSBWordLog(file))
+        {
+            return log.replay(0, (seq, documents, counts) -> { });
+        }
+        catch(StreamCorruptedException e)
+        {
+            return -1;
+        }
+    }
+
+    private static boolean counts(TSBWordStore store, Integer uno, Integer dos, Integer tres)
+    {
+        TSB_OAHashtable<String, Integer> t = store.getTable();
+        return uno.equals(t.get("uno")) && dos.equals(t.get("dos")) && t.get("tres") == tres;
+    }
+
+    public static void main(String args[]) throws IOException
+    {
+        int failures = new TSBWordStoreCheck().run();
+        if(failures > 0)
+        {
+            System.out.println(failures + " verificaciones fallidas");
+            System.exit(1);
+        }
+        System.out.println("Todas las verificaciones pasaron");
+    }
+}
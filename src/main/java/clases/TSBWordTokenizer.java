@@ -0,0 +1,168 @@
+package clases;
+
+import java.nio.CharBuffer;
+import java.util.Arrays;
+
+/**
+ * Un separador de palabras incremental: recibe el texto de a bloques (por
+ * ejemplo, tal como sale de un CharsetDecoder) y entrega cada palabra
+ * detectada a un WordSink, sin crear un String por palabra. Una palabra que
+ * queda partida entre dos bloques se completa con el bloque siguiente.
+ *
+ * Siguiendo el enunciado del trabajo práctico, una palabra es una secuencia
+ * máxima de letras. Los signos de puntuación, los espacios y cualquier otro
+ * símbolo actúan como separadores, y se descartan completas las secuencias
+ * que contienen dígitos (palabras numéricas o alfanuméricas, como "1984" o
+ * "mp3"). Las letras se convierten a minúsculas, de forma que "Casa" y "casa"
+ * cuenten como la misma palabra.
+ *
+ * El arreglo que se entrega al WordSink es reutilizado: su contenido sólo es
+ * válido durante la invocación a word().
+ *
+ * @version Octubre de 2026.
+ */
+public class TSBWordTokenizer
+{
+    /**
+     * Receptor de las palabras detectadas por el separador. Cada palabra es
+     * la porción buf[off .. off+len-1] del arreglo recibido.
+     */
+    public interface WordSink
+    {
+        void word(char buf[], int off, int len);
+    }
+
+    // clases de caracteres ASCII: separador, letra o dígito...
+    private static final byte SEPARATOR = 0;
+    private static final byte LETTER = 1;
+    private static final byte DIGIT = 2;
+    private static final byte ASCII[] = new byte[128];
+    static
+    {
+        for(char c = 'a'; c <= 'z'; c++) ASCII[c] = LETTER;
+        for(char c = 'A'; c <= 'Z'; c++) ASCII[c] = LETTER;
+        for(char c = '0'; c <= '9'; c++) ASCII[c] = DIGIT;
+    }
+
+    // el receptor de las palabras...
+    private final WordSink sink;
+
+    // la palabra en construcción (puede abarcar más de un bloque)...
+    private char word[];
+    private int length;
+
+    // true si la palabra en construcción contiene algún dígito...
+    private boolean discard;
+
+    // cantidad de palabras entregadas al receptor...
+    private long words;
+
+    /**
+     * Crea un separador que entregará las palabras al receptor indicado.
+     * @param sink el receptor de las palabras.
+     * @throws NullPointerException si sink es null.
+     */
+    public TSBWordTokenizer(WordSink sink)
+    {
+        if(sink == null) throw new NullPointerException("TSBWordTokenizer(): parámetro null");
+        this.sink = sink;
+        this.word = new char[32];
+        this.length = 0;
+        this.discard = false;
+    }
+
+    /**
+     * Procesa los caracteres que quedan en el buffer cb (desde su posición
+     * hasta su límite), dejándolo consumido.
+     * @param cb el buffer con el bloque de texto.
+     */
+    public void feed(CharBuffer cb)
+    {
+        if(cb.hasArray())
+        {
+            int off = cb.arrayOffset() + cb.position();
+            this.feed(cb.array(), off, cb.remaining());
+            cb.position(cb.limit());
+        }
+        else
+        {
+            while(cb.hasRemaining()) this.feed(cb.get());
+        }
+    }
+
+    /**
+     * Procesa los len caracteres de buf que comienzan en la posición off.
+     * @param buf el arreglo con el bloque de texto.
+     * @param off la posición del primer caracter a procesar.
+     * @param len la cantidad de caracteres a procesar.
+     */
+    public void feed(char buf[], int off, int len)
+    {
+        int end = off + len;
+        for(int i = off; i < end; i++)
+        {
+            char c = buf[i];
+            if(c < 128)
+            {
+                byte k = ASCII[c];
+                if(k == LETTER) this.append((char)(c | 0x20));
+                else if(k == DIGIT) this.discard = true;
+                else if(this.length > 0 || this.discard) this.emit();
+            }
+            else this.feed(c);
+        }
+    }
+
+    /**
+     * Termina la palabra que pudiera estar en construcción (se invoca al
+     * terminar un documento, para que su última palabra no se una a la
+     * primera del siguiente).
+     */
+    public void finish()
+    {
+        if(this.length > 0 || this.discard) this.emit();
+    }
+
+    /**
+     * Retorna la cantidad de palabras entregadas al receptor.
+     * @return la cantidad de palabras detectadas hasta el momento.
+     */
+    public long words()
+    {
+        return this.words;
+    }
+
+    /*
+     * Procesa un caracter cualquiera (camino lento, para los no ASCII).
+     */
+    private void feed(char c)
+    {
+        if(Character.isLetter(c)) this.append(Character.toLowerCase(c));
+        else if(Character.isDigit(c)) this.discard = true;
+        else if(this.length > 0 || this.discard) this.emit();
+    }
+
+    private void append(char c)
+    {
+        if(this.length == this.word.length)
+        {
+            this.word = Arrays.copyOf(this.word, this.length * 2);
+        }
+        this.word[this.length++] = c;
+    }
+
+    /*
+     * Entrega la palabra en construcción al receptor (salvo que deba ser
+     * descartada) y reinicia el estado para la siguiente.
+     */
+    private void emit()
+    {
+        if(!this.discard && this.length > 0)
+        {
+            this.sink.word(this.word, 0, this.length);
+            this.words++;
+        }
+        this.length = 0;
+        this.discard = false;
+    }
+}
@@ -1,16 +1,24 @@
 package clases;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.util.AbstractMap;
 import java.util.AbstractSet;
 import java.util.Arrays;
 import java.util.AbstractCollection;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
 
 public class TSB_OAHashtable<K, V> implements Map<K, V>, Cloneable, Serializable {
 
@@ -21,6 +29,11 @@ public class TSB_OAHashtable<K, V> implements Map<K, V>, Cloneable, Serializable
      * implementaron para la clase TSBHashtable.
      */
 
+    // el valor calculado por serialver antes de que Entry avisara sus cambios
+    // a la tabla (eso agregó un método sintético que cambia el valor
+    // calculado), para seguir leyendo las tablas ya grabadas...
+    private static final long serialVersionUID = -1390455008579237915L;
+
     // el tamaño máximo que podrá tener el arreglo de soprte...
     private final static int MAX_SIZE = Integer.MAX_VALUE;
 
@@ -57,6 +70,21 @@ public class TSB_OAHashtable<K, V> implements Map<K, V>, Cloneable, Serializable
     // conteo de operaciones de cambio de tamaño (fail-fast iterator).
     protected transient int modCount;
 
+    // cantidad de rehash y tiempo acumulado en ellos (ver stats())...
+    private transient int rehashes;
+    private transient long rehash_nanos;
+
+    // contadores de operaciones (null si la tabla no está instrumentada)...
+    private transient TSBTableMetrics metrics;
+
+    // cambios de valores sin cambio de estructura (que no cuentan en
+    // modCount) y el último resultado de topK()...
+    private transient int value_changes;
+    private transient TopKResult<K, V> topk;
+
+    // casillas mínimas de cada tramo en parallelTopK()...
+    private final static int TOPK_MIN_SLOTS = 1 << 14;
+
 
 
 
@@ -209,6 +237,7 @@ public class TSB_OAHashtable<K, V> implements Map<K, V>, Cloneable, Serializable
                 // Si es el mismo devuelvo el value
                 if(key.equals(entry.getKey())){
                     valueReturn = entry.getValue();
+                    if (this.metrics != null) this.metrics.hit();
                     return valueReturn;
                 }
             }
@@ -222,6 +251,7 @@ public class TSB_OAHashtable<K, V> implements Map<K, V>, Cloneable, Serializable
         }
 
         // Si la clave no estaba asociada devolvemos null
+        if (this.metrics != null) this.metrics.miss();
         return valueReturn;
     }
 
@@ -258,10 +288,12 @@ public class TSB_OAHashtable<K, V> implements Map<K, V>, Cloneable, Serializable
                 // Si es el mismo lo piso y devuelvo el value viejo
                 if(key.equals(entry.getKey())){
                     old = entry.getValue();
-                    entry.setValue(value);
-                    this.count++;
-                    this.modCount++;
 
+                    // reemplazar el valor no cambia la cantidad de pares ni la
+                    // estructura de la tabla (igual que en TSBHashtable): el
+                    // cambio lo cuenta setValue() en value_changes...
+                    entry.setValue(value);
+                    if (this.metrics != null) this.metrics.update();
                     return old;
                 }
             }
@@ -281,12 +313,13 @@ public class TSB_OAHashtable<K, V> implements Map<K, V>, Cloneable, Serializable
         if (first_tombstone >= 0) ic = first_tombstone;
         
         // Si esta abierto o tumba
-        this.table[ic] = new Entry<K, V>(key, value);
+        this.table[ic] = new Entry<K, V>(this, key, value);
         this.states[ic] = 1;
 
         // Sumo el contador
         this.count++;
         this.modCount++;
+        if (this.metrics != null) this.metrics.insert();
 
         // Verifico el factor de carga
         float fc = (float) count / (float) this.table.length;
@@ -330,6 +363,7 @@ public class TSB_OAHashtable<K, V> implements Map<K, V>, Cloneable, Serializable
                     
                     this.count--;
                     this.modCount++;
+                    if (this.metrics != null) this.metrics.remove();
 
                     return old;
                 }
@@ -515,14 +549,23 @@ public class TSB_OAHashtable<K, V> implements Map<K, V>, Cloneable, Serializable
      * implemente la interface Map.Entry<K, V> para representar a cada par que se
      * almacene en la tabla.
      */
-    private class Entry<K, V> implements Map.Entry<K, V> {
+    private static class Entry<K, V> implements Map.Entry<K, V>, Serializable {
+        // el valor calculado por serialver antes de agregar owner (un campo
+        // transient), para seguir leyendo las tablas ya grabadas...
+        private static final long serialVersionUID = 2113284572863968115L;
+
         private K key;
         private V value;
 
-        public Entry(K key, V value) {
+        // la tabla que contiene al par, para avisarle los cambios de valor
+        // hechos con setValue() (la restaura readObject() de la tabla)...
+        private transient TSB_OAHashtable<K, V> owner;
+
+        public Entry(TSB_OAHashtable<K, V> owner, K key, V value) {
             if (key == null || value == null) {
                 throw new IllegalArgumentException("Entry(): parámetro null...");
             }
+            this.owner = owner;
             this.key = key;
             this.value = value;
         }
@@ -545,6 +588,10 @@ public class TSB_OAHashtable<K, V> implements Map<K, V>, Cloneable, Serializable
 
             V old = this.value;
             this.value = value;
+
+            // un cambio de valor invalida el resultado guardado de topK(),
+            // también si se hace sobre un par retornado por un iterador...
+            if (owner != null) owner.value_changes++;
             return old;
         }
 
@@ -673,6 +720,7 @@ public class TSB_OAHashtable<K, V> implements Map<K, V>, Cloneable, Serializable
              * fail-fast.
              */
             public KeySetIterator() {
+                if (TSB_OAHashtable.this.metrics != null) TSB_OAHashtable.this.metrics.iterator();
                 last_entry = 0;
                 current_entry = -1;
                 next_ok = false;
@@ -913,6 +961,7 @@ public class TSB_OAHashtable<K, V> implements Map<K, V>, Cloneable, Serializable
              * fail-fast.
              */
             public EntrySetIterator() {
+                if (TSB_OAHashtable.this.metrics != null) TSB_OAHashtable.this.metrics.iterator();
                 last_entry = 0;
                 current_entry = -1;
                 next_ok = false;
@@ -1047,6 +1096,7 @@ public class TSB_OAHashtable<K, V> implements Map<K, V>, Cloneable, Serializable
              * fail-fast.
              */
             public ValueCollectionIterator() {
+                if (TSB_OAHashtable.this.metrics != null) TSB_OAHashtable.this.metrics.iterator();
                 last_entry = 0;
                 current_entry = -1;
                 next_ok = false;
@@ -1221,7 +1271,7 @@ public class TSB_OAHashtable<K, V> implements Map<K, V>, Cloneable, Serializable
         }
 
         try {
-            Iterator<Map.Entry<K, V>> i = this.entrySet.iterator();
+            Iterator<Map.Entry<K, V>> i = this.entrySet().iterator();
             while (i.hasNext()) {
                 Map.Entry<K, V> e = i.next();
                 K key = e.getKey();
@@ -1305,6 +1355,18 @@ public class TSB_OAHashtable<K, V> implements Map<K, V>, Cloneable, Serializable
         return t;
     }
 
+    /*
+     * Reconstruye una tabla serializada y vuelve a enlazar cada par con la
+     * tabla (el enlace es transient), para que setValue() siga avisando los
+     * cambios de valor.
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        for (int i = 0; i < this.table.length; i++) {
+            if (this.states[i] == 1) this.table[i].owner = this;
+        }
+    }
+
 
 
 
@@ -1369,6 +1431,8 @@ public class TSB_OAHashtable<K, V> implements Map<K, V>, Cloneable, Serializable
      */
     protected void rehash()
     {
+        long t0 = System.nanoTime();
+        Object event = TSBEvents.beginRehash();
         int old_length = this.table.length;
 
         // nuevo tamaño: el siguiente primo mayor al doble del tamanio actual...
@@ -1425,6 +1489,11 @@ public class TSB_OAHashtable<K, V> implements Map<K, V>, Cloneable, Serializable
         // cambiar la referencia table para que apunte a temp...
         this.table = tempTable;
         this.states = tempStates;
+
+        this.rehashes++;
+        this.rehash_nanos += System.nanoTime() - t0;
+        if (this.metrics != null) this.metrics.rehash();
+        TSBEvents.endRehash(event, this, old_length, new_length, this.count);
     }
 
     /**
@@ -1447,6 +1516,551 @@ public class TSB_OAHashtable<K, V> implements Map<K, V>, Cloneable, Serializable
         return false;
     }
 
+    /**
+     * Retorna el valor asociado a la palabra contenida en buf[off .. off+len-1],
+     * o null si la tabla no contiene esa palabra. Sirve para tablas cuyas 
+     * claves son String: la porción del arreglo se dispersa con la misma 
+     * función que String.hashCode() y se compara en el lugar contra las claves
+     * de la tabla, sin crear un String.
+     * 
+     * @param buf el arreglo que contiene la palabra.
+     * @param off la posición del primer caracter de la palabra.
+     * @param len la cantidad de caracteres de la palabra.
+     * @return el valor asociado a la palabra, o null si no está en la tabla.
+     * @throws NullPointerException si buf es null.
+     */
+    public V getChars(char buf[], int off, int len) {
+        int ic = this.search_chars(buf, null, off, len, hash_chars(buf, null, off, len));
+        return (ic >= 0) ? this.table[ic].getValue() : null;
+    }
+
+    /**
+     * Retorna el valor asociado a la palabra cs (comparada por su contenido con
+     * las claves String de la tabla), o null si la tabla no contiene esa 
+     * palabra. Ver getChars(char[], int, int).
+     * 
+     * @param cs la palabra a buscar (un StringBuilder, CharBuffer, etc.).
+     * @return el valor asociado a la palabra, o null si no está en la tabla.
+     * @throws NullPointerException si cs es null.
+     */
+    public V getChars(CharSequence cs) {
+        int len = cs.length();
+        int ic = this.search_chars(null, cs, 0, len, hash_chars(null, cs, 0, len));
+        return (ic >= 0) ? this.table[ic].getValue() : null;
+    }
+
+    /**
+     * Suma delta a la frecuencia asociada a la palabra buf[off .. off+len-1], 
+     * y retorna la nueva frecuencia. Es válido sólo para tablas cuyas claves 
+     * son String y cuyos valores son Integer (como la tabla de frecuencias de
+     * palabras). Si la palabra ya está en la tabla se actualiza su valor en el 
+     * lugar, sin crear un String (sólo el Integer del nuevo valor, que además 
+     * sale del caché de Integer si está entre -128 y 127). Sólo cuando la 
+     * palabra se inserta por primera vez se crea el String que será su clave.
+     * 
+     * @param buf el arreglo que contiene la palabra.
+     * @param off la posición del primer caracter de la palabra.
+     * @param len la cantidad de caracteres de la palabra.
+     * @param delta el valor a sumar a la frecuencia de la palabra.
+     * @return la frecuencia de la palabra luego de sumarle delta.
+     * @throws NullPointerException si buf es null.
+     * @throws ClassCastException si los valores de la tabla no son Integer.
+     */
+    public int increment(char buf[], int off, int len, int delta) {
+        return this.increment_chars(buf, null, off, len, delta);
+    }
+
+    /**
+     * Suma delta a la frecuencia asociada a la palabra cs, y retorna la nueva
+     * frecuencia. Ver increment(char[], int, int, int).
+     * 
+     * @param cs la palabra cuya frecuencia se incrementa.
+     * @param delta el valor a sumar a la frecuencia de la palabra.
+     * @return la frecuencia de la palabra luego de sumarle delta.
+     * @throws NullPointerException si cs es null.
+     * @throws ClassCastException si los valores de la tabla no son Integer.
+     */
+    public int increment(CharSequence cs, int delta) {
+        return this.increment_chars(null, cs, 0, cs.length(), delta);
+    }
+
+    /**
+     * Copia en los arreglos keys y values las claves y los valores de la 
+     * tabla (el par i-ésimo queda en keys[i] y values[i]), y retorna la 
+     * cantidad de pares copiados. Es una copia de referencias, sin recorrer 
+     * vistas ni crear objetos: sirve para capturar un estado consistente de la
+     * tabla en poco tiempo y luego procesarlo (grabarlo, por ejemplo) en otro
+     * hilo mientras la tabla sigue siendo modificada. Como la tabla no es
+     * thread-safe, este método no debe ejecutarse al mismo tiempo que una
+     * modificación.
+     * 
+     * @param keys el arreglo en el que se copian las claves.
+     * @param values el arreglo en el que se copian los valores.
+     * @return la cantidad de pares copiados (igual a size()).
+     * @throws IndexOutOfBoundsException si los arreglos tienen menos de size() 
+     *         casillas.
+     */
+    public int copyTo(Object keys[], Object values[]) {
+        if (keys.length < this.count || values.length < this.count) {
+            throw new IndexOutOfBoundsException("copyTo(): arreglos demasiado chicos...");
+        }
+
+        int n = 0;
+        for (int i = 0; i < this.table.length; i++) {
+            if (this.states[i] == 1) {
+                keys[n] = this.table[i].getKey();
+                values[n] = this.table[i].getValue();
+                n++;
+            }
+        }
+        return n;
+    }
+
+    /**
+     * Retorna los k pares mayores según el comparador indicado (por ejemplo,
+     * las k palabras más frecuentes con Map.Entry.comparingByValue()),
+     * ordenados de mayor a menor. Recorre una sola vez el arreglo de casillas
+     * manteniendo un heap de mínimo con a lo sumo k pares: su costo es
+     * O(n log k) y no copia la tabla. El orden entre pares iguales según el
+     * comparador no está definido.
+     * 
+     * El resultado se guarda: mientras la tabla no cambie (ni su estructura
+     * ni ningún valor, tampoco con setValue() sobre un par retornado por un
+     * iterador de entrySet()), una nueva consulta con el mismo comparador (el mismo
+     * objeto) y el mismo k o uno menor no vuelve a recorrer la tabla. Los
+     * pares retornados son copias que no cambian si luego cambia la tabla.
+     * 
+     * @param k la cantidad de pares pedidos.
+     * @param comparator el criterio de orden de los pares.
+     * @return una lista inmutable con los min(k, size()) pares mayores.
+     * @throws NullPointerException si comparator es null.
+     * @throws IllegalArgumentException si k es menor a 1.
+     * @throws ConcurrentModificationException si la tabla cambió mientras se
+     *         recorría.
+     */
+    public List<Map.Entry<K, V>> topK(int k, Comparator<? super Map.Entry<K, V>> comparator) {
+        return this.topK(k, comparator, false);
+    }
+
+    /**
+     * Igual que topK(), pero divide el arreglo de casillas en tramos que se
+     * recorren en paralelo en el ForkJoinPool común, cada uno con su propio
+     * heap, y luego combina los heaps. Conviene en tablas grandes (en las
+     * chicas recorre la tabla en el hilo que lo invoca). Como la tabla no es
+     * thread-safe, no debe ejecutarse al mismo tiempo que una modificación.
+     * 
+     * @param k la cantidad de pares pedidos.
+     * @param comparator el criterio de orden de los pares.
+     * @return una lista inmutable con los min(k, size()) pares mayores.
+     * @throws NullPointerException si comparator es null.
+     * @throws IllegalArgumentException si k es menor a 1.
+     * @throws ConcurrentModificationException si la tabla cambió mientras se
+     *         recorría.
+     */
+    public List<Map.Entry<K, V>> parallelTopK(int k, Comparator<? super Map.Entry<K, V>> comparator) {
+        return this.topK(k, comparator, true);
+    }
+
+    /**
+     * Retorna el estado interno de la tabla: capacidad, pares, tumbas, carga,
+     * el histograma de la cantidad de casillas visitadas para encontrar cada
+     * clave, el costo esperado de una búsqueda fallida, el bloque más largo de
+     * casillas no abiertas, y la cantidad y el tiempo acumulado de los rehash.
+     * Recorre la secuencia de exploración de cada clave y de cada casilla, así
+     * que su costo es proporcional a la capacidad de la tabla: es una
+     * herramienta de diagnóstico, no para usar en cada operación.
+     * 
+     * @return las estadísticas de la tabla.
+     */
+    public TSBTableStats stats() {
+        int n = this.table.length;
+        long histogram[] = new long[16];
+        long hit_total = 0;
+        int tombstones = 0;
+        for (int i = 0; i < n; i++) {
+            if (this.states[i] == 2) tombstones++;
+            if (this.states[i] != 1) continue;
+
+            // casillas visitadas desde la original hasta llegar a la clave...
+            int ic = this.h(this.table[i].getKey());
+            int probes = 1;
+            for (int j = 1; ic != i && probes < n; j++) {
+                ic += j * j;
+                if (ic >= n) ic %= n;
+                probes++;
+            }
+            if (probes >= histogram.length) {
+                histogram = Arrays.copyOf(histogram, Math.max(probes + 1, 2 * histogram.length));
+            }
+            histogram[probes]++;
+            hit_total += probes;
+        }
+
+        // búsqueda fallida desde cada casilla: hasta dar con una abierta...
+        long miss_total = 0;
+        for (int i = 0; i < n; i++) {
+            int ic = i;
+            int probes = 1;
+            for (int j = 1; this.states[ic] != 0 && probes < n; j++) {
+                ic += j * j;
+                if (ic >= n) ic %= n;
+                probes++;
+            }
+            miss_total += probes;
+        }
+
+        // el bloque más largo de casillas consecutivas no abiertas (circular)...
+        int longest = 0;
+        int run = 0;
+        int first = -1;
+        for (int i = 0; i < n; i++) {
+            if (this.states[i] != 0) {
+                run++;
+                longest = Math.max(longest, run);
+            } else {
+                if (first < 0) first = run;
+                run = 0;
+            }
+        }
+        if (first < 0) longest = n;
+        else longest = Math.max(longest, run + first);
+
+        double hit = (this.count == 0) ? 0 : (double) hit_total / this.count;
+        return new TSBTableStats(true, n, this.count, tombstones, this.load_factor, histogram,
+                                 hit, (double) miss_total / n, longest, this.rehashes, this.rehash_nanos);
+    }
+
+    /**
+     * Retorna una estimación de la memoria (en bytes de heap) que ocupa la
+     * estructura de la tabla: el objeto tabla, el arreglo de casillas, el de
+     * estados y los objetos Entry, sin contar las claves ni los valores,
+     * suponiendo referencias comprimidas (ver TSBMemoryModel).
+     * 
+     * @return la memoria ocupada por la tabla, en bytes.
+     */
+    public long memoryFootprint() {
+        return this.memoryFootprint(TSBMemoryModel.COMPRESSED_OOPS, false);
+    }
+
+    /**
+     * Retorna una estimación de la memoria (en bytes de heap) que ocupa la
+     * tabla según el modelo de memoria indicado, incluyendo opcionalmente las
+     * claves y los valores (ver TSBMemoryModel.sizeOf()). Recorre la tabla si
+     * se incluyen las claves y los valores.
+     * 
+     * @param model el modelo de memoria de la JVM.
+     * @param contents true para sumar también las claves y los valores.
+     * @return la memoria ocupada por la tabla, en bytes.
+     * @throws NullPointerException si model es null.
+     */
+    public long memoryFootprint(TSBMemoryModel model, boolean contents) {
+        long bytes = model.shallow(this.getClass())
+                   + model.references(this.table.length)
+                   + model.array(this.states.length, 4)
+                   + this.count * model.shallow(Entry.class);
+        if (contents) {
+            for (int i = 0; i < this.table.length; i++) {
+                if (this.states[i] == 1) {
+                    bytes += model.sizeOf(this.table[i].getKey()) + model.sizeOf(this.table[i].getValue());
+                }
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Activa los contadores de operaciones de la tabla y los publica como un
+     * MBean con el nombre indicado (ver TSBTableMetrics). Mientras la tabla no
+     * esté instrumentada, sus operaciones no cuentan nada.
+     * 
+     * @param name el nombre de la tabla en JMX.
+     * @return los contadores de la tabla.
+     * @throws NullPointerException si name es null.
+     * @throws IllegalStateException si la tabla ya está instrumentada o si ya
+     *         hay un MBean registrado con ese nombre.
+     */
+    public TSBTableMetrics instrument(String name) {
+        if (this.metrics != null) {
+            throw new IllegalStateException("instrument(): la tabla ya está instrumentada...");
+        }
+        TSBTableMetrics m = new TSBTableMetrics(name, this);
+        m.register();
+        this.metrics = m;
+        return m;
+    }
+
+    /**
+     * Desactiva los contadores de operaciones y quita el MBean de la tabla. No
+     * hace nada si la tabla no está instrumentada.
+     */
+    public void uninstrument() {
+        TSBTableMetrics m = this.metrics;
+        this.metrics = null;
+        if (m != null) m.unregister();
+    }
+
+    /**
+     * Retorna los contadores de operaciones de la tabla.
+     * 
+     * @return los contadores, o null si la tabla no está instrumentada.
+     */
+    public TSBTableMetrics getMetrics() {
+        return this.metrics;
+    }
+
+    /*
+     * Implementación común de topK() y parallelTopK().
+     */
+    private List<Map.Entry<K, V>> topK(int k, Comparator<? super Map.Entry<K, V>> comparator, boolean parallel) {
+        if (comparator == null) throw new NullPointerException("topK(): parámetro null");
+        if (k < 1) throw new IllegalArgumentException("topK(): k inválido: " + k);
+
+        // el resultado guardado sirve si contiene k pares, o todos...
+        TopKResult<K, V> r = this.topk;
+        if (r != null && r.comparator == comparator && r.modCount == this.modCount
+                && r.value_changes == this.value_changes && (k <= r.k || r.entries.size() < r.k)) {
+            return (k >= r.entries.size()) ? r.entries : r.entries.subList(0, k);
+        }
+
+        int expected_modCount = this.modCount;
+        int n = Math.min(k, this.count);
+        int slots = this.table.length;
+        int parts = parallel ? Math.min(4 * ForkJoinPool.getCommonPoolParallelism(), slots / TOPK_MIN_SLOTS) : 1;
+
+        TopKHeap<K, V> heap;
+        if (parts <= 1) {
+            heap = new TopKHeap<>(n, comparator);
+            this.topK_range(heap, 0, slots);
+        } else {
+            long step = (slots + parts - 1) / parts;
+            heap = IntStream.range(0, parts).parallel().mapToObj(p -> {
+                TopKHeap<K, V> h = new TopKHeap<>(n, comparator);
+                this.topK_range(h, (int) (p * step), (int) Math.min(slots, (p + 1) * step));
+                return h;
+            }).reduce(TopKHeap::merge).get();
+        }
+
+        if (this.modCount != expected_modCount) {
+            throw new ConcurrentModificationException("topK(): modificación inesperada de tabla...");
+        }
+
+        // se copian los pares, para que el resultado no cambie con la tabla...
+        Map.Entry<K, V> top[] = heap.drain();
+        for (int i = 0; i < top.length; i++) {
+            top[i] = new AbstractMap.SimpleImmutableEntry<>(top[i]);
+        }
+        List<Map.Entry<K, V>> entries = Collections.unmodifiableList(Arrays.asList(top));
+        this.topk = new TopKResult<>(entries, k, comparator, this.modCount, this.value_changes);
+        return entries;
+    }
+
+    /*
+     * Agrega al heap los pares de las casillas from a to - 1.
+     */
+    private void topK_range(TopKHeap<K, V> heap, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (this.states[i] == 1) heap.offer(this.table[i]);
+        }
+    }
+
+    /*
+     * Heap de mínimo con capacidad fija: conserva los pares mayores que
+     * recibe, con el menor de ellos en la raíz.
+     */
+    private static final class TopKHeap<K, V> {
+        private final Map.Entry<K, V> heap[];
+        private final Comparator<? super Map.Entry<K, V>> comparator;
+        private int size;
+
+        @SuppressWarnings("unchecked")
+        TopKHeap(int capacity, Comparator<? super Map.Entry<K, V>> comparator) {
+            this.heap = (Map.Entry<K, V>[]) new Map.Entry[capacity];
+            this.comparator = comparator;
+        }
+
+        void offer(Map.Entry<K, V> e) {
+            if (size < heap.length) {
+                // hay lugar: se agrega al final y se sube...
+                int i = size++;
+                while (i > 0) {
+                    int parent = (i - 1) >>> 1;
+                    if (comparator.compare(e, heap[parent]) >= 0) break;
+                    heap[i] = heap[parent];
+                    i = parent;
+                }
+                heap[i] = e;
+            } else if (size > 0 && comparator.compare(e, heap[0]) > 0) {
+                // es mayor que el menor: lo reemplaza en la raíz...
+                this.sift_down(e, size);
+            }
+        }
+
+        TopKHeap<K, V> merge(TopKHeap<K, V> other) {
+            for (int i = 0; i < other.size; i++) this.offer(other.heap[i]);
+            return this;
+        }
+
+        /*
+         * Vacía el heap y retorna sus pares ordenados de mayor a menor.
+         */
+        @SuppressWarnings("unchecked")
+        Map.Entry<K, V>[] drain() {
+            Map.Entry<K, V> out[] = (Map.Entry<K, V>[]) new Map.Entry[size];
+            while (size > 0) {
+                Map.Entry<K, V> min = heap[0];
+                Map.Entry<K, V> last = heap[--size];
+                heap[size] = null;
+                if (size > 0) this.sift_down(last, size);
+                out[size] = min;
+            }
+            return out;
+        }
+
+        private void sift_down(Map.Entry<K, V> e, int n) {
+            int i = 0;
+            int half = n >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < n && comparator.compare(heap[child + 1], heap[child]) < 0) child++;
+                if (comparator.compare(e, heap[child]) <= 0) break;
+                heap[i] = heap[child];
+                i = child;
+            }
+            heap[i] = e;
+        }
+    }
+
+    /*
+     * Resultado guardado de topK(), con los parámetros y el estado de la tabla
+     * para los que fue calculado.
+     */
+    private static final class TopKResult<K, V> {
+        final List<Map.Entry<K, V>> entries;
+        final int k;
+        final Comparator<?> comparator;
+        final int modCount;
+        final int value_changes;
+
+        TopKResult(List<Map.Entry<K, V>> entries, int k, Comparator<?> comparator, int modCount, int value_changes) {
+            this.entries = entries;
+            this.k = k;
+            this.comparator = comparator;
+            this.modCount = modCount;
+            this.value_changes = value_changes;
+        }
+    }
+
+    /*
+     * Implementación común de increment(): la palabra está en buf (si no es
+     * null) o en cs. Recorre la secuencia de exploración igual que put(),
+     * recordando la primera tumba por si hay que insertar.
+     */
+    private int increment_chars(char buf[], CharSequence cs, int off, int len, int delta) {
+        int hash = hash_chars(buf, cs, off, len);
+        int ic = this.h(hash);
+        int first_tombstone = -1;
+        int j = 1;
+
+        while (this.states[ic] != 0) {
+            // Si en la posicion actual esta cerrada verifico si es la palabra
+            if (this.states[ic] == 1 && same_chars(this.table[ic].getKey(), hash, buf, cs, off, len)) {
+                Entry<K, V> entry = this.table[ic];
+                int value = (Integer) entry.getValue() + delta;
+                entry.setValue((V) Integer.valueOf(value));
+                if (this.metrics != null) this.metrics.update();
+                return value;
+            }
+
+            //Si en el camino encuentro un indice tumba lo tengo en cuenta
+            if (this.states[ic] == 2 && first_tombstone < 0) first_tombstone = ic;
+
+            // Calculo el nuevo indice
+            ic += j * j;
+            j++;
+            if (ic >= this.table.length) {
+                ic %= this.table.length;
+            }
+        }
+
+        if (first_tombstone >= 0) ic = first_tombstone;
+
+        // Recien ahora se crea el String de la clave
+        String key = (buf != null) ? new String(buf, off, len) : cs.toString();
+        this.table[ic] = new Entry<K, V>(this, (K) key, (V) Integer.valueOf(delta));
+        this.states[ic] = 1;
+
+        this.count++;
+        this.modCount++;
+        if (this.metrics != null) this.metrics.insert();
+
+        float fc = (float) count / (float) this.table.length;
+        if (fc >= this.load_factor)
+            this.rehash();
+
+        return delta;
+    }
+
+    /*
+     * Busca la palabra (en buf o en cs) entre las claves de la tabla. Retorna
+     * el índice de la casilla que la contiene, o -1 si no está.
+     */
+    private int search_chars(char buf[], CharSequence cs, int off, int len, int hash) {
+        int ic = this.h(hash);
+        int j = 1;
+
+        while (this.states[ic] != 0) {
+            if (this.states[ic] == 1 && same_chars(this.table[ic].getKey(), hash, buf, cs, off, len)) {
+                if (this.metrics != null) this.metrics.hit();
+                return ic;
+            }
+
+            // Calculo el nuevo indice
+            ic += j * j;
+            j++;
+            if (ic >= this.table.length) {
+                ic %= this.table.length;
+            }
+        }
+        if (this.metrics != null) this.metrics.miss();
+        return -1;
+    }
+
+    /*
+     * Calcula para la palabra (en buf o en cs) el mismo valor que calcularía
+     * String.hashCode() para un String con esos caracteres.
+     */
+    private static int hash_chars(char buf[], CharSequence cs, int off, int len) {
+        int hc = 0;
+        if (buf != null) {
+            for (int i = off, end = off + len; i < end; i++) hc = 31 * hc + buf[i];
+        } else {
+            for (int i = 0; i < len; i++) hc = 31 * hc + cs.charAt(i);
+        }
+        return hc;
+    }
+
+    /*
+     * Determina si la clave key es un String con los mismos caracteres que la
+     * palabra (en buf o en cs). Se compara primero el hash (que String guarda
+     * una vez calculado) para descartar rápido las claves distintas.
+     */
+    private static boolean same_chars(Object key, int hash, char buf[], CharSequence cs, int off, int len) {
+        if (!(key instanceof String)) return false;
+
+        String k = (String) key;
+        if (k.length() != len || k.hashCode() != hash) return false;
+        if (buf != null) {
+            for (int i = 0; i < len; i++) {
+                if (k.charAt(i) != buf[off + i]) return false;
+            }
+        } else {
+            for (int i = 0; i < len; i++) {
+                if (k.charAt(i) != cs.charAt(i)) return false;
+            }
+        }
+        return true;
+    }
+
     /*
      * Función hash. Toma una clave entera k y calcula y retorna un índice válido
      * para esa clave para entrar en la tabla.
@@ -0,0 +1,99 @@
+package clases;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+/**
+ * Compara la carga de miles de documentos chicos con un pool de hilos de
+ * plataforma y con un hilo virtual por documento (requiere Java 21: se
+ * compila sólo con el perfil java21 del pom).
+ *
+ * Genera en un directorio temporal la cantidad de documentos indicada (con
+ * palabras al azar, pero siempre las mismas), los procesa varias veces con
+ * cada modo, informa el mejor tiempo de cada uno y verifica que todas las
+ * tablas obtenidas sean iguales. Al terminar borra los documentos.
+ * Uso: java clases.TSBVirtualThreadBenchmark [documentos] [palabras por documento]
+ *
+ * @version Octubre de 2026.
+ */
+public class TSBVirtualThreadBenchmark
+{
+    private static final int ROUNDS = 5;
+
+    public static void main(String args[]) throws IOException
+    {
+        int docs = (args.length > 0) ? Integer.parseInt(args[0]) : 5000;
+        int words = (args.length > 1) ? Integer.parseInt(args[1]) : 300;
+        int cpus = Runtime.getRuntime().availableProcessors();
+
+        Path dir = Files.createTempDirectory("tsb-docs");
+        Path files[] = generate(dir, docs, words);
+        try
+        {
+            System.out.println(docs + " documentos de " + words + " palabras, " + cpus + " procesadores");
+            TSB_OAHashtable<String, Integer> expected = new TSB_OAHashtable<>();
+            new TSBWordIngester(expected).ingest(files);
+
+            run("Plataforma (" + cpus + " hilos)", TSBVirtualThreadIngester.ofPlatformThreads(cpus, StandardCharsets.UTF_8), files, expected);
+            run("Plataforma (" + 4 * cpus + " hilos)", TSBVirtualThreadIngester.ofPlatformThreads(4 * cpus, StandardCharsets.UTF_8), files, expected);
+            run("Virtuales (1 por documento)", TSBVirtualThreadIngester.ofVirtualThreads(StandardCharsets.UTF_8), files, expected);
+        }
+        finally
+        {
+            for(Path f : files) Files.deleteIfExists(f);
+            Files.deleteIfExists(dir);
+        }
+    }
+
+    private static void run(String name, TSBVirtualThreadIngester ingester, Path files[],
+                            TSB_OAHashtable<String, Integer> expected) throws IOException
+    {
+        TSBIngestionStats best = null;
+        boolean equal = true;
+        for(int r = 0; r < ROUNDS; r++)
+        {
+            TSB_OAHashtable<String, Integer> table = new TSB_OAHashtable<>();
+            TSBIngestionStats s = ingester.ingest(table, files);
+            equal &= expected.equals(table);
+            if(best == null || s.getNanos() < best.getNanos()) best = s;
+        }
+        System.out.printf("%-30s %.3f s (%.0f documentos/s, %.1f MB/s) - resultados iguales: %b%n",
+                          name, best.getNanos() / 1e9, files.length / (best.getNanos() / 1e9),
+                          best.megabytesPerSecond(), equal);
+    }
+
+    /*
+     * Genera docs archivos de words palabras cada uno, elegidas al azar (con
+     * semilla fija) de un vocabulario de 20000 palabras.
+     */
+    private static Path[] generate(Path dir, int docs, int words) throws IOException
+    {
+        Random rnd = new Random(42);
+        String vocabulary[] = new String[20000];
+        for(int i = 0; i < vocabulary.length; i++)
+        {
+            char w[] = new char[3 + rnd.nextInt(8)];
+            for(int j = 0; j < w.length; j++) w[j] = (char)('a' + rnd.nextInt(26));
+            vocabulary[i] = new String(w);
+        }
+
+        Path files[] = new Path[docs];
+        for(int d = 0; d < docs; d++)
+        {
+            files[d] = dir.resolve("doc" + d + ".txt");
+            try(Writer out = Files.newBufferedWriter(files[d], StandardCharsets.UTF_8))
+            {
+                for(int i = 0; i < words; i++)
+                {
+                    out.write(vocabulary[rnd.nextInt(vocabulary.length)]);
+                    out.write((i % 12 == 11) ? ".\n" : " ");
+                }
+            }
+        }
+        return files;
+    }
+}
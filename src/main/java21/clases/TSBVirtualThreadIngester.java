@@ -0,0 +1,164 @@
+package clases;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Carga de documentos con un hilo por documento (requiere Java 21: se
+ * compila sólo con el perfil java21 del pom).
+ *
+ * Por defecto cada documento se procesa en su propio hilo virtual: las
+ * lecturas bloqueantes de archivos liberan el hilo del sistema operativo
+ * mientras esperan, de forma que miles de documentos chicos pueden procesarse
+ * a la vez sin ajustar a mano el tamaño de un pool de hilos. Cada documento
+ * se cuenta en una tabla propia (con su propio TSBWordIngester) y al
+ * terminar se suma a la tabla destino; la suma está protegida por un
+ * ReentrantLock y no por synchronized, que en Java 21 fijaría el hilo
+ * virtual a su hilo portador.
+ *
+ * El mismo proceso puede ejecutarse con un pool de hilos de plataforma (ver
+ * ofPlatformThreads()), para comparar ambos modos (TSBVirtualThreadBenchmark).
+ *
+ * @version Octubre de 2026.
+ */
+public class TSBVirtualThreadIngester
+{
+    // tamaño de los buffers de cada documento (los documentos son chicos)...
+    private static final int BUFFER_SIZE = 1 << 13;
+
+    private final Supplier<ExecutorService> executors;
+    private final Charset charset;
+
+    private TSBVirtualThreadIngester(Supplier<ExecutorService> executors, Charset charset)
+    {
+        if(charset == null) throw new NullPointerException("TSBVirtualThreadIngester(): parámetro null");
+        this.executors = executors;
+        this.charset = charset;
+    }
+
+    /**
+     * Crea un ingester que procesa cada documento en un hilo virtual propio.
+     * @param charset el juego de caracteres de los archivos.
+     * @return el ingester creado.
+     * @throws NullPointerException si charset es null.
+     */
+    public static TSBVirtualThreadIngester ofVirtualThreads(Charset charset)
+    {
+        return new TSBVirtualThreadIngester(Executors::newVirtualThreadPerTaskExecutor, charset);
+    }
+
+    /**
+     * Crea un ingester que procesa los documentos en un pool de threads
+     * hilos de plataforma (el modo tradicional, para comparar). Si threads es
+     * menor a 1 se ajusta a 1.
+     * @param threads la cantidad de hilos del pool.
+     * @param charset el juego de caracteres de los archivos.
+     * @return el ingester creado.
+     * @throws NullPointerException si charset es null.
+     */
+    public static TSBVirtualThreadIngester ofPlatformThreads(int threads, Charset charset)
+    {
+        int n = Math.max(threads, 1);
+        return new TSBVirtualThreadIngester(() -> Executors.newFixedThreadPool(n), charset);
+    }
+
+    /**
+     * Procesa los archivos indicados, uno por hilo, y suma a la tabla target
+     * las frecuencias de las palabras que contienen. Mientras dura el proceso
+     * la tabla target no debe ser modificada por otros hilos.
+     * @param target la tabla en la que se acumulan las frecuencias.
+     * @param files los archivos a procesar.
+     * @return las estadísticas del proceso completo.
+     * @throws IOException si alguno de los archivos no puede leerse.
+     */
+    public TSBIngestionStats ingest(TSB_OAHashtable<String, Integer> target, Path... files) throws IOException
+    {
+        long t0 = System.nanoTime();
+        ReentrantLock lock = new ReentrantLock();
+        AtomicLong bytes = new AtomicLong();
+        AtomicLong words = new AtomicLong();
+
+        try(ExecutorService executor = executors.get())
+        {
+            List<Future<?>> tasks = new ArrayList<>(files.length);
+            for(Path file : files)
+            {
+                tasks.add(executor.submit(() ->
+                {
+                    TSB_OAHashtable<String, Integer> local = new TSB_OAHashtable<>();
+                    TSBIngestionStats s;
+                    try
+                    {
+                        s = new TSBWordIngester(local, charset, BUFFER_SIZE).ingest(file);
+                    }
+                    catch(IOException e)
+                    {
+                        throw new UncheckedIOException(e);
+                    }
+                    bytes.addAndGet(s.getBytes());
+                    words.addAndGet(s.getWords());
+
+                    lock.lock();
+                    try
+                    {
+                        TSBParallelIngester.merge(target, local);
+                    }
+                    finally
+                    {
+                        lock.unlock();
+                    }
+                }));
+            }
+
+            for(Future<?> task : tasks)
+            {
+                try
+                {
+                    task.get();
+                }
+                catch(ExecutionException e)
+                {
+                    executor.shutdownNow();
+                    if(e.getCause() instanceof UncheckedIOException) throw ((UncheckedIOException) e.getCause()).getCause();
+                    throw new IllegalStateException("ingest(): falla al procesar un documento...", e.getCause());
+                }
+                catch(InterruptedException e)
+                {
+                    executor.shutdownNow();
+                    Thread.currentThread().interrupt();
+                    throw new IOException("ingest(): carga interrumpida...", e);
+                }
+            }
+        }
+        return new TSBIngestionStats(files.length, bytes.get(), words.get(), System.nanoTime() - t0);
+    }
+
+    /**
+     * Procesa los archivos indicados con un hilo virtual por documento.
+     * Uso: java clases.TSBVirtualThreadIngester archivo...
+     * @param args los archivos a procesar.
+     * @throws IOException si alguno de los archivos no puede leerse.
+     */
+    public static void main(String args[]) throws IOException
+    {
+        Path files[] = new Path[args.length];
+        for(int i = 0; i < args.length; i++) files[i] = Paths.get(args[i]);
+
+        TSB_OAHashtable<String, Integer> table = new TSB_OAHashtable<>();
+        System.out.println(ofVirtualThreads(StandardCharsets.UTF_8).ingest(table, files));
+        System.out.println("Palabras distintas: " + table.size());
+    }
+}
@@ -0,0 +1,201 @@
+package clases;
+
+import java.nio.file.Path;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Los eventos de Java Flight Recorder que emite TSBEvents. Es la única clase
+ * del proyecto que usa jdk.jfr, y TSBEvents sólo la carga (por reflexión) si
+ * la JVM incluye JFR, así que en una JVM sin el módulo jdk.jfr nunca se
+ * carga. Está en su
+ * propio directorio de fuentes (src/main/jfr), que se compila aparte (ver
+ * pom.xml): el resto del proyecto se compila con --release 8, que no incluye
+ * la API de JFR.
+ *
+ * @version Octubre de 2026.
+ */
+final class TSBJfrEvents implements TSBEvents.Recorder
+{
+    TSBJfrEvents()
+    {
+    }
+
+    //************************ Rehash.
+
+    @Override
+    public Object beginRehash()
+    {
+        Event e = new RehashEvent();
+        e.begin();
+        return e;
+    }
+
+    @Override
+    public void endRehash(Object event, Object table, int old_capacity, int new_capacity, int moved)
+    {
+        RehashEvent e = (RehashEvent) event;
+        if(e.shouldCommit())
+        {
+            e.table = table.getClass().getSimpleName();
+            e.oldCapacity = old_capacity;
+            e.newCapacity = new_capacity;
+            e.entriesMoved = moved;
+            e.commit();
+        }
+    }
+
+    //************************ Snapshots.
+
+    @Override
+    public Object beginSnapshot(boolean write)
+    {
+        Event e = write ? new SnapshotWriteEvent() : new SnapshotReadEvent();
+        e.begin();
+        return e;
+    }
+
+    @Override
+    public void endSnapshot(Object event, Path file, int entries, long bytes, boolean compressed, long capture_nanos)
+    {
+        if(event instanceof SnapshotWriteEvent)
+        {
+            SnapshotWriteEvent e = (SnapshotWriteEvent) event;
+            if(e.shouldCommit())
+            {
+                e.file = String.valueOf(file);
+                e.entries = entries;
+                e.bytesWritten = bytes;
+                e.compressed = compressed;
+                e.captureTime = capture_nanos;
+                e.commit();
+            }
+        }
+        else
+        {
+            SnapshotReadEvent e = (SnapshotReadEvent) event;
+            if(e.shouldCommit())
+            {
+                e.file = String.valueOf(file);
+                e.entries = entries;
+                e.bytesRead = bytes;
+                e.compressed = compressed;
+                e.commit();
+            }
+        }
+    }
+
+    //************************ Carga de documentos.
+
+    @Override
+    public Object beginIngestion()
+    {
+        Event e = new IngestionEvent();
+        e.begin();
+        return e;
+    }
+
+    @Override
+    public void endIngestion(Object event, String stage, Path file, long bytes, long words)
+    {
+        IngestionEvent e = (IngestionEvent) event;
+        if(e.shouldCommit())
+        {
+            e.stage = stage;
+            e.file = (file != null) ? file.toString() : null;
+            e.bytes = bytes;
+            e.words = words;
+            e.commit();
+        }
+    }
+
+    //************************ Clases de los eventos.
+
+    @Name("clases.Rehash")
+    @Label("Rehash")
+    @Category("TSB")
+    @Description("Reorganización de una tabla hash en un arreglo más grande")
+    static class RehashEvent extends Event
+    {
+        @Label("Tabla")
+        String table;
+
+        @Label("Capacidad anterior")
+        int oldCapacity;
+
+        @Label("Capacidad nueva")
+        int newCapacity;
+
+        @Label("Pares movidos")
+        int entriesMoved;
+    }
+
+    @Name("clases.SnapshotWrite")
+    @Label("Grabación de snapshot")
+    @Category("TSB")
+    @Description("Grabación de una tabla con TSBSnapshot (sin incluir la captura)")
+    static class SnapshotWriteEvent extends Event
+    {
+        @Label("Archivo")
+        String file;
+
+        @Label("Pares")
+        int entries;
+
+        @Label("Bytes grabados")
+        @DataAmount
+        long bytesWritten;
+
+        @Label("Comprimido")
+        boolean compressed;
+
+        @Label("Duración de la captura")
+        @Timespan
+        long captureTime;
+    }
+
+    @Name("clases.SnapshotRead")
+    @Label("Lectura de snapshot")
+    @Category("TSB")
+    @Description("Lectura de una tabla grabada con TSBSnapshot")
+    static class SnapshotReadEvent extends Event
+    {
+        @Label("Archivo")
+        String file;
+
+        @Label("Pares")
+        int entries;
+
+        @Label("Bytes leídos")
+        @DataAmount
+        long bytesRead;
+
+        @Label("Comprimido")
+        boolean compressed;
+    }
+
+    @Name("clases.Ingestion")
+    @Label("Carga de documentos")
+    @Category("TSB")
+    @Description("Un paso de la carga de documentos: un archivo (o una parte), un bloque o un lote de palabras")
+    static class IngestionEvent extends Event
+    {
+        @Label("Etapa")
+        String stage;
+
+        @Label("Archivo")
+        String file;
+
+        @Label("Bytes")
+        @DataAmount
+        long bytes;
+
+        @Label("Palabras")
+        long words;
+    }
+}